@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.component;
+
+import org.terasology.entitySystem.Component;
+
+import java.util.List;
+
+/**
+ * Makes the station craft the specified recipe on its own, whenever its ingredients and tools allow. The process type
+ * of the recipe has to be marked as automatic in the WorkstationComponent of the station.
+ */
+public class AutomaticCraftingComponent implements Component {
+    public String processId;
+    /**
+     * Parameters of the recipe to craft, if not specified, the first result valid for crafting is used.
+     */
+    public List<String> parameters;
+}
@@ -22,4 +22,5 @@ import java.util.List;
 public class CraftingProcessComponent implements Component {
     public List<String> parameters;
     public int count;
+    public int remainingJobs;
 }
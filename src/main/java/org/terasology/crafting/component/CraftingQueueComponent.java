@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.component;
+
+import com.google.common.collect.Lists;
+import org.terasology.entitySystem.Component;
+import org.terasology.reflection.MappedContainer;
+
+import java.util.List;
+
+/**
+ * Crafting jobs of bulk requests, waiting on the station for the previous job to finish or for room in the output.
+ */
+public class CraftingQueueComponent implements Component {
+    public List<QueuedCraft> queuedCrafts = Lists.newArrayList();
+    public boolean waitingForOutput;
+
+    @MappedContainer
+    public static class QueuedCraft {
+        public String processId;
+        public List<String> parameters;
+        public int count;
+        public int remainingJobs;
+    }
+}
@@ -23,6 +23,7 @@ import java.util.List;
 public class CraftingWorkstationProcessRequest extends WorkstationProcessRequest {
     private List<String> parameters;
     private int count;
+    private int repeat = 1;
 
     public CraftingWorkstationProcessRequest() {
     }
@@ -33,6 +34,14 @@ public class CraftingWorkstationProcessRequest extends WorkstationProcessRequest
         this.count = count;
     }
 
+    /**
+     * Request for a number of crafting jobs (each crafting count times), started by the station one after another.
+     */
+    public CraftingWorkstationProcessRequest(EntityRef workstation, String processId, List<String> parameters, int count, int repeat) {
+        this(workstation, processId, parameters, count);
+        this.repeat = repeat;
+    }
+
     public List<String> getParameters() {
         return parameters;
     }
@@ -40,4 +49,8 @@ public class CraftingWorkstationProcessRequest extends WorkstationProcessRequest
     public int getCount() {
         return count;
     }
+
+    public int getRepeat() {
+        return Math.max(1, repeat);
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.component.AutomaticCraftingComponent;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.fluid.component.FluidInventoryComponent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.logic.inventory.events.InventorySlotStackSizeChangedEvent;
+import org.terasology.workstation.event.WorkstationStateChanged;
+import org.terasology.workstation.process.WorkstationInventoryUtils;
+
+/**
+ * Lets the automatically crafting stations try to start the next craft, whenever their inventory changes.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class AutomaticCraftingAuthoritySystem extends BaseComponentSystem {
+    @ReceiveEvent(components = {AutomaticCraftingComponent.class})
+    public void automaticCraftingActivated(OnActivatedComponent event, EntityRef station) {
+        station.send(new WorkstationStateChanged());
+    }
+
+    @ReceiveEvent(components = {AutomaticCraftingComponent.class})
+    public void inventorySlotChanged(InventorySlotChangedEvent event, EntityRef station) {
+        if (!event.getNewItem().exists() || !isOutputSlot(station, event.getSlot())) {
+            station.send(new WorkstationStateChanged());
+        }
+    }
+
+    @ReceiveEvent(components = {AutomaticCraftingComponent.class})
+    public void inventorySlotStackSizeChanged(InventorySlotStackSizeChangedEvent event, EntityRef station) {
+        if (event.getNewSize() < event.getOldSize() || !isOutputSlot(station, event.getSlot())) {
+            station.send(new WorkstationStateChanged());
+        }
+    }
+
+    @ReceiveEvent(components = {AutomaticCraftingComponent.class})
+    public void automaticCraftingChanged(OnChangedComponent event, EntityRef station) {
+        station.send(new WorkstationStateChanged());
+    }
+
+    // Filtered on the fluid inventory only, so that a change of the crafted recipe does not notify the station twice
+    @ReceiveEvent(components = {FluidInventoryComponent.class})
+    public void fluidInventoryChanged(OnChangedComponent event, EntityRef station) {
+        if (station.hasComponent(AutomaticCraftingComponent.class)) {
+            station.send(new WorkstationStateChanged());
+        }
+    }
+
+    // Results delivered to the output can not make a new craft possible, only taking them out makes room for one
+    private boolean isOutputSlot(EntityRef station, int slot) {
+        return WorkstationInventoryUtils.getAssignedSlots(station, "OUTPUT").contains(slot);
+    }
+}
@@ -15,23 +15,49 @@
  */
 package org.terasology.crafting.system;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.crafting.event.UserCraftInHandRequest;
 import org.terasology.crafting.system.recipe.hand.CraftInHandRecipe;
+import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.characters.CharacterComponent;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.logic.inventory.events.DropItemEvent;
 import org.terasology.logic.location.LocationComponent;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.registry.In;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Crafts the results requested by the players. Identical requests of a character arriving within one tick are merged
+ * into a single craft of the summed count, and characters sending more than MAX_REQUESTS_PER_SECOND requests have the
+ * surplus ignored. The results go directly to the character inventory, only the remainder is dropped.
+ */
 @RegisterSystem(RegisterMode.AUTHORITY)
-public class CraftInHandAuthoritySystem extends BaseComponentSystem {
+public class CraftInHandAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final Logger logger = LoggerFactory.getLogger(CraftInHandAuthoritySystem.class);
+
+    private static final int MAX_REQUESTS_PER_SECOND = 20;
+    private static final long RATE_WINDOW = 1000;
+    // Count a single request may ask for, and the most a merged craft may reach
+    private static final int MAX_REQUEST_COUNT = 100;
+    private static final int MAX_PENDING_COUNT = MAX_REQUEST_COUNT * MAX_REQUESTS_PER_SECOND;
+    // Crafted stacks per character and tick, so that a large merged craft is spread over several ticks
+    private static final int MAX_BATCHES_PER_TICK = 8;
+
     @In
     private EntityManager entityManager;
     @In
@@ -39,22 +65,182 @@ public class CraftInHandAuthoritySystem extends BaseComponentSystem {
 
     @In
     private InventoryManager inventoryManager;
+    @In
+    private Time time;
+
+    private Map<EntityRef, Map<PendingCraft, Integer>> pendingCrafts = new LinkedHashMap<>();
+    private Map<EntityRef, RequestRate> requestRates = new HashMap<>();
 
     @ReceiveEvent
     public void craftInHandRequestReceived(UserCraftInHandRequest event, EntityRef character) {
-        if (!recipeRegistry.isCraftingInHandDisabled()) {
-            String recipeId = event.getRecipeId();
-            final List<String> parameters = event.getParameters();
-            CraftInHandRecipe craftInHandRecipe = recipeRegistry.getRecipes().get(recipeId);
-            if (craftInHandRecipe != null) {
-                CraftInHandRecipe.CraftInHandResult result = craftInHandRecipe.getResultByParameters(parameters);
-                if (result != null) {
-                    EntityRef resultEntity = result.craft(character, event.getCount());
-                    if (resultEntity.exists()) {
-                        resultEntity.send(new DropItemEvent(character.getComponent(LocationComponent.class).getWorldPosition()));
-                    }
+        if (recipeRegistry.isCraftingInHandDisabled() || event.getRecipeId() == null || event.getParameters() == null
+                || event.getCount() <= 0 || !acceptRequest(character)) {
+            return;
+        }
+
+        // The parameters come from the client, so they are checked now, while a bad request affects only its own event
+        CraftInHandRecipe.CraftInHandResult result = getResult(event.getRecipeId(), event.getParameters());
+        if (result == null) {
+            return;
+        }
+
+        queueCraft(character, new PendingCraft(event.getRecipeId(), event.getParameters(), result), Math.min(event.getCount(), MAX_REQUEST_COUNT));
+    }
+
+    private void queueCraft(EntityRef character, PendingCraft pendingCraft, int count) {
+        Map<PendingCraft, Integer> characterCrafts = pendingCrafts.get(character);
+        if (characterCrafts == null) {
+            characterCrafts = new LinkedHashMap<>();
+            pendingCrafts.put(character, characterCrafts);
+        }
+        Integer queuedCount = characterCrafts.get(pendingCraft);
+        characterCrafts.put(pendingCraft, Math.min((queuedCount != null ? queuedCount : 0) + count, MAX_PENDING_COUNT));
+    }
+
+    private boolean acceptRequest(EntityRef character) {
+        long currentTime = time.getGameTimeInMs();
+        RequestRate requestRate = requestRates.get(character);
+        if (requestRate == null || requestRate.windowStart + RATE_WINDOW <= currentTime) {
+            requestRate = new RequestRate(currentTime);
+            requestRates.put(character, requestRate);
+        }
+        requestRate.requests++;
+        return requestRate.requests <= MAX_REQUESTS_PER_SECOND;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (pendingCrafts.isEmpty()) {
+            return;
+        }
+
+        PerformanceMonitor.startActivity("Crafting - craft in hand request");
+        try {
+            Map<EntityRef, Map<PendingCraft, Integer>> crafts = pendingCrafts;
+            pendingCrafts = new LinkedHashMap<>();
+            for (Map.Entry<EntityRef, Map<PendingCraft, Integer>> characterCrafts : crafts.entrySet()) {
+                EntityRef character = characterCrafts.getKey();
+                if (character.exists()) {
+                    craft(character, characterCrafts.getValue());
                 }
             }
+        } finally {
+            PerformanceMonitor.endActivity();
+        }
+    }
+
+    private void craft(EntityRef character, Map<PendingCraft, Integer> crafts) {
+        int batches = 0;
+        for (Map.Entry<PendingCraft, Integer> pendingCraft : crafts.entrySet()) {
+            try {
+                batches += craft(character, pendingCraft.getKey(), pendingCraft.getValue(), MAX_BATCHES_PER_TICK - batches);
+            } catch (RuntimeException e) {
+                // Discard only this craft, the other characters' crafts are in the same tick
+                logger.error("Failed to craft recipe {} with parameters {}", pendingCraft.getKey().recipeId, pendingCraft.getKey().parameters, e);
+            }
+        }
+    }
+
+    /**
+     * @return The count of batches used.
+     */
+    private int craft(EntityRef character, PendingCraft pendingCraft, int count, int maxBatches) {
+        // Merged requests might together ask for more than fits into a single stack, or more than is available,
+        // craft as many stacks as possible then
+        int batches = 0;
+        int remaining = count;
+        while (remaining > 0) {
+            if (batches == maxBatches) {
+                // The rest is left for the following ticks
+                queueCraft(character, pendingCraft, remaining);
+                break;
+            }
+            batches++;
+            int crafted = craftBatch(character, pendingCraft.result, remaining);
+            if (crafted == 0) {
+                break;
+            }
+            remaining -= crafted;
+        }
+        return batches;
+    }
+
+    private CraftInHandRecipe.CraftInHandResult getResult(String recipeId, List<String> parameters) {
+        CraftInHandRecipe craftInHandRecipe = recipeRegistry.getRecipes().get(recipeId);
+        if (craftInHandRecipe == null) {
+            return null;
+        }
+        return craftInHandRecipe.getResultByParameters(parameters);
+    }
+
+    /**
+     * @return The count crafted, 0 if nothing could be crafted.
+     */
+    private int craftBatch(EntityRef character, CraftInHandRecipe.CraftInHandResult result, int count) {
+        int batch = Math.min(count, result.getMaxMultiplier(character));
+        if (batch <= 0) {
+            return 0;
+        }
+        EntityRef resultEntity = result.craft(character, batch);
+        if (!resultEntity.exists()) {
+            return 0;
+        }
+        deliver(character, resultEntity);
+        return batch;
+    }
+
+    /**
+     * Puts the result into the character inventory, filling the existing stacks first, and drops only what does not
+     * fit, so that mass crafting does not spawn a pickup for every craft.
+     */
+    private void deliver(EntityRef character, EntityRef resultEntity) {
+        if (!inventoryManager.giveItem(character, character, resultEntity) && resultEntity.exists()) {
+            resultEntity.send(new DropItemEvent(character.getComponent(LocationComponent.class).getWorldPosition()));
+        }
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class})
+    public void characterDeactivated(BeforeDeactivateComponent event, EntityRef character) {
+        pendingCrafts.remove(character);
+        requestRates.remove(character);
+    }
+
+    private static final class PendingCraft {
+        private final String recipeId;
+        private final List<String> parameters;
+        // Not part of the identity, it is resolved from the recipe id and parameters
+        private final CraftInHandRecipe.CraftInHandResult result;
+
+        private PendingCraft(String recipeId, List<String> parameters, CraftInHandRecipe.CraftInHandResult result) {
+            this.recipeId = recipeId;
+            this.parameters = new ArrayList<>(parameters);
+            this.result = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PendingCraft that = (PendingCraft) o;
+            return recipeId.equals(that.recipeId) && parameters.equals(that.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * recipeId.hashCode() + parameters.hashCode();
+        }
+    }
+
+    private static final class RequestRate {
+        private final long windowStart;
+        private int requests;
+
+        private RequestRate(long windowStart) {
+            this.windowStart = windowStart;
         }
     }
 }
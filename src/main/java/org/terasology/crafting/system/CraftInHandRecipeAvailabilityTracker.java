@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import com.google.common.collect.Multimap;
+import org.terasology.crafting.system.recipe.hand.CraftInHandRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.Set;
+
+/**
+ * Keeps the craft in hand recipes available to a character, re-checking only the recipes using the types of items
+ * that changed in the character inventory.
+ */
+public interface CraftInHandRecipeAvailabilityTracker {
+    /**
+     * Returns the available recipe results of the character, keyed by recipe id, in registration order.
+     */
+    Multimap<String, CraftInHandRecipe.CraftInHandResult> getAvailableRecipes(EntityRef character);
+
+    /**
+     * Returns the ids of the recipes the character has at least one result available for.
+     */
+    Set<String> getCraftableRecipeIds(EntityRef character);
+
+    /**
+     * Returns a number that changes every time the available recipe results of the character are recalculated.
+     */
+    int getRevision(EntityRef character);
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import org.terasology.crafting.component.CraftInHandIngredientComponent;
+import org.terasology.crafting.system.recipe.hand.CompositeTypeBasedCraftInHandRecipe;
+import org.terasology.crafting.system.recipe.hand.CraftInHandRecipe;
+import org.terasology.durability.DurabilityComponent;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.characters.CharacterComponent;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.inventory.InventoryUtils;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.logic.inventory.events.InventorySlotStackSizeChangedEvent;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.network.NetworkSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RegisterSystem
+@Share(CraftInHandRecipeAvailabilityTracker.class)
+public class CraftInHandRecipeAvailabilityTrackerImpl extends BaseComponentSystem implements CraftInHandRecipeAvailabilityTracker {
+    @In
+    private CraftInHandRecipeRegistry recipeRegistry;
+    @In
+    private NetworkSystem networkSystem;
+
+    private Map<EntityRef, CharacterRecipes> characterRecipes = new HashMap<>();
+
+    // Recipe ids by the ingredient types they use, recipes matching some of their ingredients other way are re-checked
+    // on every change
+    private Multimap<String, String> recipesByType = HashMultimap.create();
+    private Set<String> untypedRecipes = new HashSet<>();
+    private int indexedRecipeCount = -1;
+
+    @Override
+    public Multimap<String, CraftInHandRecipe.CraftInHandResult> getAvailableRecipes(EntityRef character) {
+        return getUpToDateRecipes(character).results;
+    }
+
+    @Override
+    public Set<String> getCraftableRecipeIds(EntityRef character) {
+        return Collections.unmodifiableSet(getUpToDateRecipes(character).results.keySet());
+    }
+
+    @Override
+    public int getRevision(EntityRef character) {
+        return getUpToDateRecipes(character).revision;
+    }
+
+    private CharacterRecipes getUpToDateRecipes(EntityRef character) {
+        Map<String, CraftInHandRecipe> recipes = recipeRegistry.getRecipes();
+        if (recipes.size() != indexedRecipeCount) {
+            indexRecipes(recipes);
+        }
+
+        CharacterRecipes available = characterRecipes.get(character);
+        if (available == null) {
+            available = new CharacterRecipes();
+            characterRecipes.put(character, available);
+        }
+        if (available.allDirty || !available.dirtyRecipes.isEmpty()) {
+            recalculate(character, recipes, available);
+        }
+        return available;
+    }
+
+    private void indexRecipes(Map<String, CraftInHandRecipe> recipes) {
+        recipesByType.clear();
+        untypedRecipes.clear();
+        for (Map.Entry<String, CraftInHandRecipe> recipe : recipes.entrySet()) {
+            Set<String> ingredientTypes = null;
+            if (recipe.getValue() instanceof CompositeTypeBasedCraftInHandRecipe) {
+                ingredientTypes = ((CompositeTypeBasedCraftInHandRecipe) recipe.getValue()).getIngredientTypes();
+            }
+            if (ingredientTypes != null) {
+                for (String ingredientType : ingredientTypes) {
+                    recipesByType.put(ingredientType, recipe.getKey());
+                }
+            } else {
+                untypedRecipes.add(recipe.getKey());
+            }
+        }
+        indexedRecipeCount = recipes.size();
+
+        for (CharacterRecipes available : characterRecipes.values()) {
+            available.allDirty = true;
+        }
+    }
+
+    private void recalculate(EntityRef character, Map<String, CraftInHandRecipe> recipes, CharacterRecipes available) {
+        PerformanceMonitor.startActivity("Crafting - craft in hand recipes");
+        try {
+            Set<String> recipeIds;
+            if (available.allDirty) {
+                recipeIds = recipes.keySet();
+                available.resultsByRecipe.keySet().retainAll(recipeIds);
+                snapshotSlotTypes(character, available);
+            } else {
+                recipeIds = available.dirtyRecipes;
+            }
+
+            // Even with the same parameters the counts or items behind them might have changed, so the fresh results
+            // always replace the old ones
+            for (String recipeId : recipeIds) {
+                CraftInHandRecipe recipe = recipes.get(recipeId);
+                List<CraftInHandRecipe.CraftInHandResult> results = recipe != null ? recipe.getMatchingRecipeResults(character) : null;
+                if (results == null || results.isEmpty()) {
+                    available.resultsByRecipe.remove(recipeId);
+                } else {
+                    available.resultsByRecipe.put(recipeId, results);
+                }
+            }
+
+            available.allDirty = false;
+            available.dirtyRecipes.clear();
+
+            // Rebuilt in registration order, rather than in the order the recipes happened to change
+            Multimap<String, CraftInHandRecipe.CraftInHandResult> results = LinkedHashMultimap.create();
+            for (String recipeId : recipes.keySet()) {
+                List<CraftInHandRecipe.CraftInHandResult> recipeResults = available.resultsByRecipe.get(recipeId);
+                if (recipeResults != null) {
+                    results.putAll(recipeId, recipeResults);
+                }
+            }
+            available.results = results;
+            available.revision++;
+        } finally {
+            PerformanceMonitor.endActivity();
+        }
+    }
+
+    private void snapshotSlotTypes(EntityRef character, CharacterRecipes available) {
+        available.slotTypes.clear();
+        int slotCount = InventoryUtils.getSlotCount(character);
+        for (int slot = 0; slot < slotCount; slot++) {
+            String type = getIngredientType(InventoryUtils.getItemAt(character, slot));
+            if (type != null) {
+                available.slotTypes.put(slot, type);
+            }
+        }
+    }
+
+    private String getIngredientType(EntityRef item) {
+        CraftInHandIngredientComponent ingredient = item.getComponent(CraftInHandIngredientComponent.class);
+        return ingredient != null ? ingredient.componentType : null;
+    }
+
+    private void markTypeDirty(CharacterRecipes available, String type) {
+        if (type != null) {
+            available.dirtyRecipes.addAll(recipesByType.get(type));
+        }
+        available.dirtyRecipes.addAll(untypedRecipes);
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class})
+    public void inventorySlotChanged(InventorySlotChangedEvent event, EntityRef character) {
+        CharacterRecipes available = characterRecipes.get(character);
+        if (available != null && !available.allDirty) {
+            // The type of the old item is taken from the snapshot, as the item might have been destroyed already
+            String newType = getIngredientType(event.getNewItem());
+            String oldType;
+            if (newType != null) {
+                oldType = available.slotTypes.put(event.getSlot(), newType);
+            } else {
+                oldType = available.slotTypes.remove(event.getSlot());
+            }
+            markTypeDirty(available, oldType);
+            markTypeDirty(available, newType);
+        }
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class})
+    public void inventorySlotStackSizeChanged(InventorySlotStackSizeChangedEvent event, EntityRef character) {
+        CharacterRecipes available = characterRecipes.get(character);
+        if (available != null && !available.allDirty) {
+            markTypeDirty(available, available.slotTypes.get(event.getSlot()));
+        }
+    }
+
+    // Only needed on clients, see InventoryTypeIndexImpl. On the authority the slot events above precede every save,
+    // and re-checking all the recipes on each of them would defeat tracking them by type.
+
+    @ReceiveEvent(components = {CharacterComponent.class, InventoryComponent.class})
+    public void inventoryChanged(OnChangedComponent event, EntityRef character) {
+        CharacterRecipes available = characterRecipes.get(character);
+        if (available != null && !networkSystem.getMode().isAuthority()) {
+            available.allDirty = true;
+        }
+    }
+
+    @ReceiveEvent(components = {ItemComponent.class})
+    public void itemChanged(OnChangedComponent event, EntityRef item) {
+        itemOfOwnerChanged(item);
+    }
+
+    @ReceiveEvent(components = {DurabilityComponent.class})
+    public void durabilityChanged(OnChangedComponent event, EntityRef item) {
+        itemOfOwnerChanged(item);
+    }
+
+    private void itemOfOwnerChanged(EntityRef item) {
+        CharacterRecipes available = characterRecipes.get(item.getOwner());
+        if (available != null && !available.allDirty) {
+            markTypeDirty(available, getIngredientType(item));
+        }
+    }
+
+    @ReceiveEvent(components = {CharacterComponent.class})
+    public void characterDeactivated(BeforeDeactivateComponent event, EntityRef character) {
+        characterRecipes.remove(character);
+    }
+
+    private static final class CharacterRecipes {
+        private boolean allDirty = true;
+        private Set<String> dirtyRecipes = new LinkedHashSet<>();
+        private Map<Integer, String> slotTypes = new HashMap<>();
+        private int revision;
+        private Map<String, List<CraftInHandRecipe.CraftInHandResult>> resultsByRecipe = new HashMap<>();
+        private Multimap<String, CraftInHandRecipe.CraftInHandResult> results = LinkedHashMultimap.create();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.component.CraftingQueueComponent;
+import org.terasology.crafting.event.CraftingWorkstationProcessRequest;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.delay.DelayedActionTriggeredEvent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.workstation.process.WorkstationInventoryUtils;
+
+/**
+ * Starts the next queued crafting job of a station, once the previous one has finished. The job goes through the same
+ * request validation as a player request, but is issued by the station itself on the server, so the rest of the queue
+ * does not depend on the player staying around, and no client round trip is needed per job.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class CraftingQueueAuthoritySystem extends BaseComponentSystem {
+    public static final String NEXT_JOB_ACTION_ID = "Crafting:NextQueuedJob";
+
+    @ReceiveEvent
+    public void startNextJob(DelayedActionTriggeredEvent event, EntityRef workstation, CraftingQueueComponent queue) {
+        if (event.getActionId().equals(NEXT_JOB_ACTION_ID) && !queue.waitingForOutput) {
+            startNextJob(workstation, queue);
+        }
+    }
+
+    @ReceiveEvent
+    public void outputEmptied(InventorySlotChangedEvent event, EntityRef workstation, CraftingQueueComponent queue) {
+        if (queue.waitingForOutput && !event.getNewItem().exists()
+                && WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT").contains(event.getSlot())) {
+            startNextJob(workstation, queue);
+        }
+    }
+
+    private void startNextJob(EntityRef workstation, CraftingQueueComponent queue) {
+        if (queue.queuedCrafts.isEmpty()) {
+            workstation.removeComponent(CraftingQueueComponent.class);
+            return;
+        }
+
+        CraftingQueueComponent.QueuedCraft queuedCraft = queue.queuedCrafts.remove(0);
+        queue.waitingForOutput = false;
+        if (queue.queuedCrafts.isEmpty()) {
+            workstation.removeComponent(CraftingQueueComponent.class);
+        } else {
+            workstation.saveComponent(queue);
+        }
+
+        workstation.send(new CraftingWorkstationProcessRequest(workstation, queuedCraft.processId, queuedCraft.parameters,
+                queuedCraft.count, queuedCraft.remainingJobs));
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.List;
+
+/**
+ * Reverse index from ingredient, tool and fluid types to the crafting processes using them.
+ */
+public interface CraftingStationRecipeIndex {
+    /**
+     * Returns the crafting processes of the station, that could be crafted with the types of ingredients, tools and fluids
+     * present in the station, in the order of their registration. Processes with recipes not matching by type are
+     * always returned.
+     */
+    List<CraftingWorkstationProcess> getCandidateProcesses(EntityRef station);
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.component.CraftingStationIngredientComponent;
+import org.terasology.crafting.component.CraftingStationToolComponent;
+import org.terasology.crafting.system.recipe.workstation.AbstractWorkstationRecipe;
+import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.fluid.component.FluidComponent;
+import org.terasology.fluid.component.FluidInventoryComponent;
+import org.terasology.logic.inventory.InventoryUtils;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.workstation.component.WorkstationComponent;
+import org.terasology.workstation.process.WorkstationInventoryUtils;
+import org.terasology.workstation.process.WorkstationProcess;
+import org.terasology.workstation.system.WorkstationRegistry;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RegisterSystem
+@Share(CraftingStationRecipeIndex.class)
+public class CraftingStationRecipeIndexImpl extends BaseComponentSystem implements CraftingStationRecipeIndex {
+    @In
+    private WorkstationRegistry workstationRegistry;
+
+    private Map<String, ProcessTypeIndex> processTypeIndices = new HashMap<>();
+
+    @Override
+    public List<CraftingWorkstationProcess> getCandidateProcesses(EntityRef station) {
+        WorkstationComponent workstation = station.getComponent(WorkstationComponent.class);
+        if (workstation == null) {
+            return Collections.emptyList();
+        }
+
+        Set<String> ingredientTypes = new HashSet<>();
+        for (int slot : WorkstationInventoryUtils.getAssignedSlots(station, "INPUT")) {
+            CraftingStationIngredientComponent ingredient = InventoryUtils.getItemAt(station, slot).getComponent(CraftingStationIngredientComponent.class);
+            if (ingredient != null) {
+                ingredientTypes.add(ingredient.type);
+            }
+        }
+
+        Set<String> toolTypes = new HashSet<>();
+        for (int slot : WorkstationInventoryUtils.getAssignedSlots(station, "TOOL")) {
+            CraftingStationToolComponent tool = InventoryUtils.getItemAt(station, slot).getComponent(CraftingStationToolComponent.class);
+            if (tool != null) {
+                toolTypes.addAll(tool.type);
+            }
+        }
+
+        Set<String> fluidTypes = new HashSet<>();
+        FluidInventoryComponent fluidInventory = station.getComponent(FluidInventoryComponent.class);
+        if (fluidInventory != null) {
+            for (int slot : WorkstationInventoryUtils.getAssignedSlots(station, "FLUID_INPUT")) {
+                FluidComponent fluid = fluidInventory.fluidSlots.get(slot).getComponent(FluidComponent.class);
+                if (fluid != null) {
+                    fluidTypes.add(fluid.fluidType);
+                }
+            }
+        }
+
+        List<CraftingWorkstationProcess> result = new ArrayList<>();
+        for (String processType : workstation.supportedProcessTypes.keySet()) {
+            getProcessTypeIndex(processType).appendCandidates(ingredientTypes, toolTypes, fluidTypes, result);
+        }
+        return result;
+    }
+
+    private ProcessTypeIndex getProcessTypeIndex(String processType) {
+        ProcessTypeIndex index = processTypeIndices.get(processType);
+        if (index == null) {
+            index = new ProcessTypeIndex(workstationRegistry.getWorkstationProcesses(Collections.singleton(processType)));
+            processTypeIndices.put(processType, index);
+        }
+        return index;
+    }
+
+    /**
+     * Crafting processes of a single process type, referenced by their position in the registration order.
+     */
+    private static final class ProcessTypeIndex {
+        private List<CraftingWorkstationProcess> processes = new ArrayList<>();
+        private List<Set<String>> ingredientTypes = new ArrayList<>();
+        private List<Set<String>> toolTypes = new ArrayList<>();
+        private List<Set<String>> fluidTypes = new ArrayList<>();
+
+        private Map<String, BitSet> byIngredientType = new HashMap<>();
+        private Map<String, BitSet> byToolType = new HashMap<>();
+        private Map<String, BitSet> byFluidType = new HashMap<>();
+        // Processes not referenced by any type, these have to be checked always
+        private BitSet unreferenced = new BitSet();
+
+        private ProcessTypeIndex(Iterable<? extends WorkstationProcess> workstationProcesses) {
+            for (WorkstationProcess workstationProcess : workstationProcesses) {
+                if (workstationProcess instanceof CraftingWorkstationProcess) {
+                    CraftingWorkstationProcess process = (CraftingWorkstationProcess) workstationProcess;
+                    int index = processes.size();
+                    processes.add(process);
+
+                    CraftingStationRecipe recipe = process.getCraftingWorkstationRecipe();
+                    if (recipe instanceof AbstractWorkstationRecipe) {
+                        AbstractWorkstationRecipe workstationRecipe = (AbstractWorkstationRecipe) recipe;
+                        ingredientTypes.add(workstationRecipe.getIngredientTypes());
+                        toolTypes.add(workstationRecipe.getToolTypes());
+                        fluidTypes.add(workstationRecipe.getFluidTypes());
+                    } else {
+                        ingredientTypes.add(null);
+                        toolTypes.add(null);
+                        fluidTypes.add(null);
+                    }
+
+                    boolean referenced = reference(byIngredientType, ingredientTypes.get(index), index);
+                    referenced |= reference(byToolType, toolTypes.get(index), index);
+                    referenced |= reference(byFluidType, fluidTypes.get(index), index);
+                    if (!referenced) {
+                        unreferenced.set(index);
+                    }
+                }
+            }
+        }
+
+        private static boolean reference(Map<String, BitSet> byType, Set<String> types, int index) {
+            if (types == null || types.isEmpty()) {
+                return false;
+            }
+            for (String type : types) {
+                BitSet processIndices = byType.get(type);
+                if (processIndices == null) {
+                    processIndices = new BitSet();
+                    byType.put(type, processIndices);
+                }
+                processIndices.set(index);
+            }
+            return true;
+        }
+
+        private void appendCandidates(Set<String> presentIngredientTypes, Set<String> presentToolTypes, Set<String> presentFluidTypes,
+                                      List<CraftingWorkstationProcess> result) {
+            BitSet candidates = (BitSet) unreferenced.clone();
+            collect(byIngredientType, presentIngredientTypes, candidates);
+            collect(byToolType, presentToolTypes, candidates);
+            collect(byFluidType, presentFluidTypes, candidates);
+
+            for (int index = candidates.nextSetBit(0); index >= 0; index = candidates.nextSetBit(index + 1)) {
+                if (isPresent(ingredientTypes.get(index), presentIngredientTypes)
+                        && isPresent(toolTypes.get(index), presentToolTypes)
+                        && isPresent(fluidTypes.get(index), presentFluidTypes)) {
+                    result.add(processes.get(index));
+                }
+            }
+        }
+
+        private static void collect(Map<String, BitSet> byType, Set<String> presentTypes, BitSet candidates) {
+            for (String presentType : presentTypes) {
+                BitSet processIndices = byType.get(presentType);
+                if (processIndices != null) {
+                    candidates.or(processIndices);
+                }
+            }
+        }
+
+        private static boolean isPresent(Set<String> requiredTypes, Set<String> presentTypes) {
+            return requiredTypes == null || presentTypes.containsAll(requiredTypes);
+        }
+    }
+}
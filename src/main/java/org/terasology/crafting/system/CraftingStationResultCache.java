@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.List;
+
+/**
+ * Keeps the results of station recipes created for a station, so that repeated lookups of the same parameters reuse
+ * the result and its renderers until the station changes.
+ */
+public interface CraftingStationResultCache {
+    /**
+     * Returns the result cached for the recipe and parameters in the station, or null if there is none, or the station
+     * has changed since it was cached.
+     */
+    CraftingStationRecipe.CraftingStationResult getResult(EntityRef station, CraftingStationRecipe recipe, List<String> parameters);
+
+    void putResult(EntityRef station, CraftingStationRecipe recipe, List<String> parameters,
+                   CraftingStationRecipe.CraftingStationResult result);
+}
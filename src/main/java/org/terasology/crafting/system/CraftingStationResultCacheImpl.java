@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.workstation.component.WorkstationComponent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RegisterSystem
+@Share(CraftingStationResultCache.class)
+public class CraftingStationResultCacheImpl extends BaseComponentSystem implements CraftingStationResultCache {
+    private static final int MAX_RESULTS_PER_STATION = 256;
+
+    @In
+    private StationChangeTracker stationChangeTracker;
+
+    private Map<EntityRef, StationResults> stationResults = new HashMap<>();
+
+    @Override
+    public CraftingStationRecipe.CraftingStationResult getResult(EntityRef station, CraftingStationRecipe recipe, List<String> parameters) {
+        StationResults results = getUpToDateResults(station);
+        if (results == null) {
+            return null;
+        }
+        return results.get(new ResultKey(recipe, parameters));
+    }
+
+    @Override
+    public void putResult(EntityRef station, CraftingStationRecipe recipe, List<String> parameters,
+                          CraftingStationRecipe.CraftingStationResult result) {
+        StationResults results = getUpToDateResults(station);
+        if (results == null) {
+            results = new StationResults(stationChangeTracker.getChangeCount(station));
+            stationResults.put(station, results);
+        }
+        results.put(new ResultKey(recipe, new ArrayList<>(parameters)), result);
+    }
+
+    private StationResults getUpToDateResults(EntityRef station) {
+        StationResults results = stationResults.get(station);
+        if (results != null && results.changeCount != stationChangeTracker.getChangeCount(station)) {
+            stationResults.remove(station);
+            return null;
+        }
+        return results;
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void stationDeactivated(BeforeDeactivateComponent event, EntityRef station) {
+        stationResults.remove(station);
+    }
+
+    private static final class StationResults extends LinkedHashMap<ResultKey, CraftingStationRecipe.CraftingStationResult> {
+        private final int changeCount;
+
+        private StationResults(int changeCount) {
+            super(16, 0.75f, true);
+            this.changeCount = changeCount;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ResultKey, CraftingStationRecipe.CraftingStationResult> eldest) {
+            return size() > MAX_RESULTS_PER_STATION;
+        }
+    }
+
+    private static final class ResultKey {
+        private final CraftingStationRecipe recipe;
+        private final List<String> parameters;
+
+        private ResultKey(CraftingStationRecipe recipe, List<String> parameters) {
+            this.recipe = recipe;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ResultKey resultKey = (ResultKey) o;
+            return recipe == resultKey.recipe && parameters.equals(resultKey.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(recipe) + parameters.hashCode();
+        }
+    }
+}
@@ -15,10 +15,13 @@
  */
 package org.terasology.crafting.system;
 
+import org.terasology.crafting.component.AutomaticCraftingComponent;
 import org.terasology.crafting.component.CraftingProcessComponent;
+import org.terasology.crafting.component.CraftingQueueComponent;
 import org.terasology.crafting.event.CraftingWorkstationProcessRequest;
 import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.delay.DelayManager;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.workstation.event.WorkstationProcessRequest;
@@ -31,6 +34,8 @@ import org.terasology.workstation.system.ValidateInventoryItem;
 import java.util.List;
 
 public class CraftingWorkstationProcess implements WorkstationProcess, ValidateInventoryItem, ValidateFluidInventoryItem {
+    public static final int MAX_QUEUED_JOBS = 100;
+
     private String processType;
     private String craftingRecipeId;
     private CraftingStationRecipe recipe;
@@ -100,6 +105,7 @@ public class CraftingWorkstationProcess implements WorkstationProcess, ValidateI
         CraftingProcessComponent craftingProcess = new CraftingProcessComponent();
         craftingProcess.parameters = parameters;
         craftingProcess.count = count;
+        craftingProcess.remainingJobs = Math.min(craftingRequest.getRepeat(), MAX_QUEUED_JOBS) - 1;
         processEntity.addComponent(craftingProcess);
 
         return result.getProcessDuration();
@@ -107,7 +113,37 @@ public class CraftingWorkstationProcess implements WorkstationProcess, ValidateI
 
     @Override
     public long startProcessingAutomatic(EntityRef workstation, EntityRef processEntity) throws InvalidProcessException {
-        throw new InvalidProcessException();
+        AutomaticCraftingComponent automaticCrafting = workstation.getComponent(AutomaticCraftingComponent.class);
+        if (automaticCrafting == null || !craftingRecipeId.equals(automaticCrafting.processId)) {
+            throw new InvalidProcessException();
+        }
+
+        final CraftingStationRecipe.CraftingStationResult result = getAutomaticResult(workstation, automaticCrafting);
+        if (result == null || !result.startCrafting(workstation, 1)) {
+            throw new InvalidProcessException();
+        }
+
+        CraftingProcessComponent craftingProcess = new CraftingProcessComponent();
+        craftingProcess.parameters = result.getResultParameters();
+        craftingProcess.count = 1;
+        processEntity.addComponent(craftingProcess);
+
+        return result.getProcessDuration();
+    }
+
+    private CraftingStationRecipe.CraftingStationResult getAutomaticResult(EntityRef workstation, AutomaticCraftingComponent automaticCrafting) {
+        if (automaticCrafting.parameters != null && !automaticCrafting.parameters.isEmpty()) {
+            return recipe.getResultByParameters(workstation, automaticCrafting.parameters);
+        }
+
+        // The matching results are only recalculated by the index after the station has changed
+        StationRecipeAvailabilityIndex availabilityIndex = CoreRegistry.get(StationRecipeAvailabilityIndex.class);
+        for (CraftingStationRecipe.CraftingStationResult result : availabilityIndex.getAvailableRecipes(workstation).get(craftingRecipeId)) {
+            if (result.isValidForCrafting(workstation, 1)) {
+                return result;
+            }
+        }
+        return null;
     }
 
     @Override
@@ -116,9 +152,42 @@ public class CraftingWorkstationProcess implements WorkstationProcess, ValidateI
 
         final CraftingStationRecipe.CraftingStationResult result = recipe.getResultByParameters(workstation, craftingProcess.parameters);
         EntityRef resultItem = result.finishCrafting(workstation, craftingProcess.count);
-        if (CoreRegistry.get(InventoryManager.class).giveItem(workstation, workstation, resultItem, WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT"))) {
-            return;
+        boolean delivered = CoreRegistry.get(InventoryManager.class).giveItem(workstation, workstation, resultItem,
+                WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT"));
+        if (!delivered) {
+            resultItem.destroy();
+        }
+
+        if (craftingProcess.remainingJobs > 0) {
+            queueRemainingJobs(workstation, craftingProcess, !delivered);
+        }
+    }
+
+    private void queueRemainingJobs(EntityRef workstation, CraftingProcessComponent craftingProcess, boolean outputFull) {
+        CraftingQueueComponent.QueuedCraft queuedCraft = new CraftingQueueComponent.QueuedCraft();
+        queuedCraft.processId = craftingRecipeId;
+        queuedCraft.parameters = craftingProcess.parameters;
+        queuedCraft.count = craftingProcess.count;
+        queuedCraft.remainingJobs = craftingProcess.remainingJobs;
+
+        CraftingQueueComponent queue = workstation.getComponent(CraftingQueueComponent.class);
+        boolean hadQueue = queue != null;
+        if (!hadQueue) {
+            queue = new CraftingQueueComponent();
+        }
+        // The bulk request that was just worked on continues before the ones queued by other processes of the station
+        queue.queuedCrafts.add(0, queuedCraft);
+        // With a full output the queue is kept until an output slot is emptied, instead of being dropped
+        queue.waitingForOutput = queue.waitingForOutput || outputFull;
+        if (hadQueue) {
+            workstation.saveComponent(queue);
+        } else {
+            workstation.addComponent(queue);
+        }
+
+        if (!queue.waitingForOutput) {
+            // The workstation is still busy with this process, the next job can start only after it is done
+            CoreRegistry.get(DelayManager.class).addDelayedAction(workstation, CraftingQueueAuthoritySystem.NEXT_JOB_ACTION_ID, 0);
         }
-        resultItem.destroy();
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.Collection;
+
+/**
+ * Keeps the slots and the total counts of the crafting ingredient and tool types in an inventory, updated as the
+ * inventory changes. The type keys are the ones returned by TypedItemPredicate.getTypeKey().
+ */
+public interface InventoryTypeIndex {
+    /**
+     * Returns the slots of the inventory holding items of the type, in ascending order.
+     */
+    Collection<Integer> getSlots(EntityRef inventory, String typeKey);
+
+    /**
+     * Returns the total stack count of the items of the type in the inventory.
+     */
+    int getCount(EntityRef inventory, String typeKey);
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.component.CraftInHandIngredientComponent;
+import org.terasology.crafting.component.CraftingStationIngredientComponent;
+import org.terasology.crafting.component.CraftingStationToolComponent;
+import org.terasology.crafting.system.recipe.hand.CraftInHandIngredientPredicate;
+import org.terasology.crafting.system.recipe.workstation.CraftingStationIngredientPredicate;
+import org.terasology.crafting.system.recipe.workstation.CraftingStationToolPredicate;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.inventory.InventoryUtils;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.logic.inventory.events.InventorySlotStackSizeChangedEvent;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+@RegisterSystem
+@Share(InventoryTypeIndex.class)
+public class InventoryTypeIndexImpl extends BaseComponentSystem implements InventoryTypeIndex {
+    private Map<EntityRef, InventoryTypes> inventoryTypes = new HashMap<>();
+
+    @Override
+    public Collection<Integer> getSlots(EntityRef inventory, String typeKey) {
+        SortedSet<Integer> slots = getUpToDateTypes(inventory).slotsByType.get(typeKey);
+        if (slots == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSortedSet(slots);
+    }
+
+    @Override
+    public int getCount(EntityRef inventory, String typeKey) {
+        Integer count = getUpToDateTypes(inventory).countsByType.get(typeKey);
+        return count != null ? count : 0;
+    }
+
+    private InventoryTypes getUpToDateTypes(EntityRef inventory) {
+        InventoryTypes types = inventoryTypes.get(inventory);
+        if (types == null) {
+            types = new InventoryTypes();
+            inventoryTypes.put(inventory, types);
+        }
+        if (types.dirty) {
+            types.clear();
+            int slotCount = InventoryUtils.getSlotCount(inventory);
+            for (int slot = 0; slot < slotCount; slot++) {
+                types.addSlot(slot, InventoryUtils.getItemAt(inventory, slot));
+            }
+            types.dirty = false;
+        }
+        return types;
+    }
+
+    private static List<String> getTypeKeys(EntityRef item) {
+        List<String> typeKeys = new ArrayList<>();
+        CraftInHandIngredientComponent craftInHandIngredient = item.getComponent(CraftInHandIngredientComponent.class);
+        if (craftInHandIngredient != null) {
+            typeKeys.add(CraftInHandIngredientPredicate.getTypeKey(craftInHandIngredient.componentType));
+        }
+        CraftingStationIngredientComponent stationIngredient = item.getComponent(CraftingStationIngredientComponent.class);
+        if (stationIngredient != null) {
+            typeKeys.add(CraftingStationIngredientPredicate.getTypeKey(stationIngredient.type));
+        }
+        CraftingStationToolComponent stationTool = item.getComponent(CraftingStationToolComponent.class);
+        if (stationTool != null) {
+            for (String toolType : stationTool.type) {
+                typeKeys.add(CraftingStationToolPredicate.getTypeKey(toolType));
+            }
+        }
+        return typeKeys;
+    }
+
+    private void updateSlot(EntityRef inventory, int slot) {
+        InventoryTypes types = inventoryTypes.get(inventory);
+        if (types != null && !types.dirty) {
+            types.removeSlot(slot);
+            types.addSlot(slot, InventoryUtils.getItemAt(inventory, slot));
+        }
+    }
+
+    private void markDirty(EntityRef inventory) {
+        InventoryTypes types = inventoryTypes.get(inventory);
+        if (types != null) {
+            types.dirty = true;
+        }
+    }
+
+    @ReceiveEvent(components = {InventoryComponent.class})
+    public void inventorySlotChanged(InventorySlotChangedEvent event, EntityRef inventory) {
+        updateSlot(inventory, event.getSlot());
+    }
+
+    @ReceiveEvent(components = {InventoryComponent.class})
+    public void inventorySlotStackSizeChanged(InventorySlotStackSizeChangedEvent event, EntityRef inventory) {
+        updateSlot(inventory, event.getSlot());
+    }
+
+    // Clients learn about inventory changes through replicated components, rather than through the inventory events.
+    // The authority saves the component on every slot change too, just before sending the slot events handled above,
+    // but also whenever some code changes the slots directly, without any slot event.
+
+    @ReceiveEvent(components = {InventoryComponent.class})
+    public void inventoryChanged(OnChangedComponent event, EntityRef inventory) {
+        markDirty(inventory);
+    }
+
+    @ReceiveEvent(components = {ItemComponent.class})
+    public void itemChanged(OnChangedComponent event, EntityRef item) {
+        EntityRef inventory = item.getOwner();
+        if (inventoryTypes.containsKey(inventory)) {
+            int slot = InventoryUtils.getSlotWithItem(inventory, item);
+            if (slot != -1) {
+                updateSlot(inventory, slot);
+            } else {
+                markDirty(inventory);
+            }
+        }
+    }
+
+    @ReceiveEvent(components = {InventoryComponent.class})
+    public void inventoryDeactivated(BeforeDeactivateComponent event, EntityRef inventory) {
+        inventoryTypes.remove(inventory);
+    }
+
+    private static final class InventoryTypes {
+        private boolean dirty = true;
+        private Map<Integer, SlotTypes> slotTypes = new HashMap<>();
+        private Map<String, SortedSet<Integer>> slotsByType = new HashMap<>();
+        private Map<String, Integer> countsByType = new HashMap<>();
+
+        private void clear() {
+            slotTypes.clear();
+            slotsByType.clear();
+            countsByType.clear();
+        }
+
+        private void addSlot(int slot, EntityRef item) {
+            if (!item.exists()) {
+                return;
+            }
+            List<String> typeKeys = getTypeKeys(item);
+            if (typeKeys.isEmpty()) {
+                return;
+            }
+            int count = InventoryUtils.getStackCount(item);
+            slotTypes.put(slot, new SlotTypes(typeKeys, count));
+            for (String typeKey : typeKeys) {
+                SortedSet<Integer> slots = slotsByType.get(typeKey);
+                if (slots == null) {
+                    slots = new TreeSet<>();
+                    slotsByType.put(typeKey, slots);
+                }
+                slots.add(slot);
+                Integer typeCount = countsByType.get(typeKey);
+                countsByType.put(typeKey, (typeCount != null ? typeCount : 0) + count);
+            }
+        }
+
+        private void removeSlot(int slot) {
+            SlotTypes removed = slotTypes.remove(slot);
+            if (removed == null) {
+                return;
+            }
+            for (String typeKey : removed.typeKeys) {
+                SortedSet<Integer> slots = slotsByType.get(typeKey);
+                slots.remove(slot);
+                int typeCount = countsByType.get(typeKey) - removed.count;
+                if (slots.isEmpty()) {
+                    slotsByType.remove(typeKey);
+                    countsByType.remove(typeKey);
+                } else {
+                    countsByType.put(typeKey, typeCount);
+                }
+            }
+        }
+    }
+
+    private static final class SlotTypes {
+        private final List<String> typeKeys;
+        private final int count;
+
+        private SlotTypes(List<String> typeKeys, int count) {
+            this.typeKeys = typeKeys;
+            this.count = count;
+        }
+    }
+}
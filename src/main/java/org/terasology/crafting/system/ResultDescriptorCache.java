@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.system.recipe.render.result.ResultDescriptor;
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * Resolves results defined as "count*prefabOrBlockFamily" strings, each distinct string only once.
+ */
+public interface ResultDescriptorCache {
+    /**
+     * @return Descriptor of the result, or null if the string names neither a prefab nor a block family.
+     */
+    ResultDescriptor getResultDescriptor(String result);
+
+    EntityRef createResultItem(ResultDescriptor resultDescriptor);
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.crafting.system.recipe.render.result.ResultDescriptor;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.prefab.PrefabManager;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.family.BlockFamily;
+import org.terasology.world.block.items.BlockItemFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RegisterSystem
+@Share(ResultDescriptorCache.class)
+public class ResultDescriptorCacheImpl extends BaseComponentSystem implements ResultDescriptorCache {
+    @In
+    private EntityManager entityManager;
+    @In
+    private PrefabManager prefabManager;
+    @In
+    private BlockManager blockManager;
+
+    private BlockItemFactory blockItemFactory;
+    private Map<String, ResultDescriptor> resultDescriptors = new HashMap<>();
+
+    @Override
+    public void initialise() {
+        blockItemFactory = new BlockItemFactory(entityManager);
+    }
+
+    @Override
+    public ResultDescriptor getResultDescriptor(String result) {
+        ResultDescriptor resultDescriptor = resultDescriptors.get(result);
+        if (resultDescriptor == null && !resultDescriptors.containsKey(result)) {
+            resultDescriptor = resolve(result);
+            resultDescriptors.put(result, resultDescriptor);
+        }
+        return resultDescriptor;
+    }
+
+    private ResultDescriptor resolve(String result) {
+        String resultText = result;
+        int count = 1;
+        int starIndex = resultText.indexOf("*");
+        if (starIndex > -1) {
+            count = Integer.parseInt(resultText.substring(0, starIndex));
+            resultText = resultText.substring(starIndex + 1);
+        }
+
+        Prefab prefab = prefabManager.getPrefab(resultText);
+        if (prefab != null) {
+            return new ResultDescriptor(count, prefab);
+        }
+        BlockFamily blockFamily = blockManager.getBlockFamily(resultText);
+        if (blockFamily != null) {
+            return new ResultDescriptor(count, blockFamily);
+        }
+        return null;
+    }
+
+    @Override
+    public EntityRef createResultItem(ResultDescriptor resultDescriptor) {
+        if (resultDescriptor.getPrefab() != null) {
+            EntityRef result = entityManager.create(resultDescriptor.getPrefab());
+            ItemComponent item = result.getComponent(ItemComponent.class);
+            item.stackCount = (byte) resultDescriptor.getCount();
+            result.saveComponent(item);
+            return result;
+        } else {
+            return blockItemFactory.newInstance(resultDescriptor.getBlockFamily(), resultDescriptor.getCount());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * Tracks changes of the station inventory, fluid inventory and state, so that data calculated from the contents of
+ * a station can be kept until the station changes.
+ */
+public interface StationChangeTracker {
+    /**
+     * Returns a number that is different after every change of the station. Stations that have not changed since
+     * they were activated return 0.
+     */
+    int getChangeCount(EntityRef station);
+}
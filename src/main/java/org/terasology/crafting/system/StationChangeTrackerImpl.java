@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import org.terasology.durability.DurabilityComponent;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.fluid.component.FluidInventoryComponent;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
+import org.terasology.logic.inventory.events.InventorySlotStackSizeChangedEvent;
+import org.terasology.registry.Share;
+import org.terasology.workstation.component.WorkstationComponent;
+import org.terasology.workstation.event.WorkstationStateChanged;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RegisterSystem
+@Share(StationChangeTracker.class)
+public class StationChangeTrackerImpl extends BaseComponentSystem implements StationChangeTracker {
+    private Map<EntityRef, Integer> changeCounts = new HashMap<>();
+    // Shared by all the stations, so a station that was deactivated and activated again never repeats a count
+    private int lastChangeCount;
+
+    @Override
+    public int getChangeCount(EntityRef station) {
+        Integer changeCount = changeCounts.get(station);
+        if (changeCount == null) {
+            return 0;
+        }
+        return changeCount;
+    }
+
+    private void stationChanged(EntityRef station) {
+        changeCounts.put(station, ++lastChangeCount);
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void inventorySlotChanged(InventorySlotChangedEvent event, EntityRef station) {
+        stationChanged(station);
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void inventorySlotStackSizeChanged(InventorySlotStackSizeChangedEvent event, EntityRef station) {
+        stationChanged(station);
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void workstationStateChanged(WorkstationStateChanged event, EntityRef station) {
+        stationChanged(station);
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class, InventoryComponent.class})
+    public void inventoryChanged(OnChangedComponent event, EntityRef station) {
+        stationChanged(station);
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class, FluidInventoryComponent.class})
+    public void fluidInventoryChanged(OnChangedComponent event, EntityRef station) {
+        stationChanged(station);
+    }
+
+    @ReceiveEvent(components = {ItemComponent.class})
+    public void itemChanged(OnChangedComponent event, EntityRef item) {
+        itemOfOwnerChanged(item.getOwner());
+    }
+
+    @ReceiveEvent(components = {DurabilityComponent.class})
+    public void durabilityChanged(OnChangedComponent event, EntityRef item) {
+        itemOfOwnerChanged(item.getOwner());
+    }
+
+    private void itemOfOwnerChanged(EntityRef owner) {
+        if (owner.hasComponent(WorkstationComponent.class)) {
+            stationChanged(owner);
+        }
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void stationDeactivated(BeforeDeactivateComponent event, EntityRef station) {
+        changeCounts.remove(station);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import com.google.common.collect.Multimap;
+import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * Keeps the recipes that can be displayed for a station, recalculating them only after the station inventory,
+ * fluid inventory or state has changed.
+ */
+public interface StationRecipeAvailabilityIndex {
+    /**
+     * Returns the available recipe results of the station, keyed by recipe id, in registration order.
+     */
+    Multimap<String, CraftingStationRecipe.CraftingStationResult> getAvailableRecipes(EntityRef station);
+
+    /**
+     * Returns a number that changes every time the available recipe results of the station are recalculated.
+     */
+    int getRevision(EntityRef station);
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.workstation.component.WorkstationComponent;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RegisterSystem
+@Share(StationRecipeAvailabilityIndex.class)
+public class StationRecipeAvailabilityIndexImpl extends BaseComponentSystem implements StationRecipeAvailabilityIndex {
+    @In
+    private CraftingStationRecipeIndex recipeIndex;
+    @In
+    private StationChangeTracker stationChangeTracker;
+
+    private Map<EntityRef, StationRecipes> stationRecipes = new HashMap<>();
+
+    @Override
+    public Multimap<String, CraftingStationRecipe.CraftingStationResult> getAvailableRecipes(EntityRef station) {
+        return getUpToDateRecipes(station).results;
+    }
+
+    @Override
+    public int getRevision(EntityRef station) {
+        return getUpToDateRecipes(station).revision;
+    }
+
+    private StationRecipes getUpToDateRecipes(EntityRef station) {
+        StationRecipes recipes = stationRecipes.get(station);
+        if (recipes == null) {
+            recipes = new StationRecipes();
+            stationRecipes.put(station, recipes);
+        }
+        int changeCount = stationChangeTracker.getChangeCount(station);
+        if (!recipes.calculated || recipes.changeCount != changeCount) {
+            recalculate(station, recipes);
+            recipes.calculated = true;
+            recipes.changeCount = changeCount;
+        }
+        return recipes;
+    }
+
+    private void recalculate(EntityRef station, StationRecipes recipes) {
+        PerformanceMonitor.startActivity("Crafting - station recipes");
+        try {
+            Multimap<String, CraftingStationRecipe.CraftingStationResult> results = LinkedHashMultimap.create();
+
+            for (CraftingWorkstationProcess process : recipeIndex.getCandidateProcesses(station)) {
+                String recipeId = process.getId();
+                List<? extends CraftingStationRecipe.CraftingStationResult> processResults =
+                        process.getCraftingWorkstationRecipe().getMatchingRecipeResultsForDisplay(station);
+                if (processResults != null) {
+                    for (CraftingStationRecipe.CraftingStationResult result : processResults) {
+                        results.put(recipeId, result);
+                    }
+                }
+            }
+
+            // The results point at the current slot contents, so even with the same parameters they replace the old
+            // ones, and the subscribers have to re-bind to them
+            recipes.results = results;
+            recipes.revision++;
+        } finally {
+            PerformanceMonitor.endActivity();
+        }
+    }
+
+    @ReceiveEvent(components = {WorkstationComponent.class})
+    public void stationDeactivated(BeforeDeactivateComponent event, EntityRef station) {
+        stationRecipes.remove(station);
+    }
+
+    private static final class StationRecipes {
+        private boolean calculated;
+        private int changeCount;
+        private int revision;
+        private Multimap<String, CraftingStationRecipe.CraftingStationResult> results = LinkedHashMultimap.create();
+    }
+}
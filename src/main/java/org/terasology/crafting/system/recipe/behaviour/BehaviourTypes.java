@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.behaviour;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Collects the types matched by the behaviours of a recipe. Once a behaviour matching by something else than type is
+ * added, the types are no longer known, as that behaviour might match anything.
+ */
+public final class BehaviourTypes {
+    private Set<String> types = new HashSet<>();
+
+    public void addUntyped() {
+        types = null;
+    }
+
+    public void add(String type) {
+        if (types != null) {
+            types.add(type);
+        }
+    }
+
+    public boolean isKnown() {
+        return types != null;
+    }
+
+    public boolean contains(String type) {
+        return types != null && types.contains(type);
+    }
+
+    /**
+     * Returns the types, or null if some of the behaviours match other way.
+     */
+    public Set<String> getTypes() {
+        return types != null ? Collections.unmodifiableSet(types) : null;
+    }
+}
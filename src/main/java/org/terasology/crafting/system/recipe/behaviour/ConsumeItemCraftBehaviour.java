@@ -27,6 +27,7 @@ import org.terasology.registry.CoreRegistry;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -61,37 +62,31 @@ public class ConsumeItemCraftBehaviour implements IngredientCraftBehaviour<Entit
     }
 
     protected List<Integer> getSlots(String parameter) {
-        String[] split = parameter.split(",");
-        List<Integer> result = new LinkedList<>();
-        for (String slot : split) {
-            result.add(Integer.parseInt(slot));
-        }
-
-        return result;
+        return RecipeParameter.parse(parameter).getSlots();
     }
 
     @Override
     public List<String> getValidToCraft(EntityRef entity, int multiplier) {
+        if (IngredientSlots.getCountUpperBound(entity, matcher) < count * multiplier) {
+            return new LinkedList<>();
+        }
+
         Map<EntityRef, Integer> itemCounts = new LinkedHashMap<>();
         Map<EntityRef, List<Integer>> slots = new LinkedHashMap<>();
+        // Only items with the same stack id can be the same, so each item is compared just against those groups
+        Map<String, List<EntityRef>> groupsByStackId = new HashMap<>();
 
-        for (int slot : resolver.getSlots(entity)) {
+        for (int slot : IngredientSlots.getCandidateSlots(entity, matcher, resolver)) {
             EntityRef item = InventoryUtils.getItemAt(entity, slot);
             if (matcher.apply(item)) {
-                boolean defined = false;
-                for (Map.Entry<EntityRef, Integer> itemCount : itemCounts.entrySet()) {
-                    EntityRef sameItem = itemCount.getKey();
-                    if (InventoryUtils.isSameItem(sameItem, item)) {
-                        itemCount.setValue(itemCount.getValue() + InventoryUtils.getStackCount(item));
-                        slots.get(sameItem).add(slot);
-                        defined = true;
-                        break;
-                    }
-                }
-
-                if (!defined) {
+                EntityRef sameItem = findSameItem(groupsByStackId, item);
+                if (sameItem != null) {
+                    itemCounts.put(sameItem, itemCounts.get(sameItem) + InventoryUtils.getStackCount(item));
+                    slots.get(sameItem).add(slot);
+                } else {
                     itemCounts.put(item, InventoryUtils.getStackCount(item));
                     slots.put(item, new ArrayList<>(Arrays.asList(slot)));
+                    addGroup(groupsByStackId, item);
                 }
             }
         }
@@ -107,6 +102,41 @@ public class ConsumeItemCraftBehaviour implements IngredientCraftBehaviour<Entit
         return result;
     }
 
+    private EntityRef findSameItem(Map<String, List<EntityRef>> groupsByStackId, EntityRef item) {
+        String stackId = getStackId(item);
+        if (stackId != null) {
+            List<EntityRef> groups = groupsByStackId.get(stackId);
+            if (groups != null) {
+                for (EntityRef group : groups) {
+                    if (InventoryUtils.isSameItem(group, item)) {
+                        return group;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void addGroup(Map<String, List<EntityRef>> groupsByStackId, EntityRef item) {
+        String stackId = getStackId(item);
+        if (stackId != null) {
+            List<EntityRef> groups = groupsByStackId.get(stackId);
+            if (groups == null) {
+                groups = new ArrayList<>(1);
+                groupsByStackId.put(stackId, groups);
+            }
+            groups.add(item);
+        }
+    }
+
+    private String getStackId(EntityRef item) {
+        ItemComponent itemComponent = item.getComponent(ItemComponent.class);
+        if (itemComponent == null || itemComponent.stackId == null || itemComponent.stackId.isEmpty()) {
+            return null;
+        }
+        return itemComponent.stackId;
+    }
+
     private boolean isValidToCraft(EntityRef entity, List<Integer> slots, int multiplier) {
         int sum = getItemSum(entity, slots);
 
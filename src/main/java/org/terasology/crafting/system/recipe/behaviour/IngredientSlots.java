@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.behaviour;
+
+import com.google.common.base.Predicate;
+import org.terasology.crafting.system.InventoryTypeIndex;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.registry.CoreRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Looks up the slots that may hold the ingredients of a behaviour, using the InventoryTypeIndex for typed predicates.
+ */
+final class IngredientSlots {
+    private IngredientSlots() {
+    }
+
+    /**
+     * Returns the slots of the resolver that may match the predicate. The caller still has to test the items in them.
+     */
+    static List<Integer> getCandidateSlots(EntityRef entity, Predicate<EntityRef> matcher, InventorySlotResolver resolver) {
+        List<Integer> resolverSlots = resolver.getSlots(entity);
+        InventoryTypeIndex typeIndex = getTypeIndex(matcher);
+        if (typeIndex == null) {
+            return resolverSlots;
+        }
+
+        Collection<Integer> typeSlots = typeIndex.getSlots(entity, ((TypedItemPredicate) matcher).getTypeKey());
+        if (typeSlots.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> resolverSlotSet = new HashSet<>(resolverSlots);
+        List<Integer> result = new ArrayList<>(typeSlots.size());
+        for (int slot : typeSlots) {
+            if (resolverSlotSet.contains(slot)) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total count of items matching the predicate in the whole inventory of the entity, or
+     * Integer.MAX_VALUE if it is not known without testing every slot.
+     */
+    static int getCountUpperBound(EntityRef entity, Predicate<EntityRef> matcher) {
+        InventoryTypeIndex typeIndex = getTypeIndex(matcher);
+        if (typeIndex == null) {
+            return Integer.MAX_VALUE;
+        }
+        return typeIndex.getCount(entity, ((TypedItemPredicate) matcher).getTypeKey());
+    }
+
+    private static InventoryTypeIndex getTypeIndex(Predicate<EntityRef> matcher) {
+        if (matcher instanceof TypedItemPredicate) {
+            return CoreRegistry.get(InventoryTypeIndex.class);
+        }
+        return null;
+    }
+}
@@ -48,7 +48,7 @@ public class PresenceItemCraftBehaviour implements IngredientCraftBehaviour<Enti
     @Override
     public List<String> getValidToCraft(EntityRef entity, int multiplier) {
         List<String> result = new LinkedList<>();
-        for (int slot : resolver.getSlots(entity)) {
+        for (int slot : IngredientSlots.getCandidateSlots(entity, matcher, resolver)) {
             if (isValidToCraft(entity, slot, multiplier)) {
                 result.add(String.valueOf(slot));
             }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.behaviour;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed form of an item behaviour parameter in the form of "slot,slot,...|metadata|metadata...".
+ * Parameters stay strings on the wire and in the stored processes, this class parses each distinct string only once.
+ */
+public final class RecipeParameter {
+    private static final int CACHE_SIZE = 1024;
+
+    // Lookups do not lock nor reorder anything, the whole cache is dropped once it fills up instead
+    private static final Map<String, RecipeParameter> CACHE = new ConcurrentHashMap<>();
+
+    private final List<Integer> slots;
+    private final List<String> metadata;
+
+    private RecipeParameter(List<Integer> slots, List<String> metadata) {
+        this.slots = slots;
+        this.metadata = metadata;
+    }
+
+    public static RecipeParameter parse(String parameter) {
+        RecipeParameter result = CACHE.get(parameter);
+        if (result == null) {
+            result = doParse(parameter);
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(parameter, result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the parameter, usually received from a client, can be parsed.
+     */
+    public static boolean isValid(String parameter) {
+        if (parameter == null) {
+            return false;
+        }
+        try {
+            parse(parameter);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static RecipeParameter doParse(String parameter) {
+        String[] split = parameter.split("\\|");
+
+        String[] slotSplit = split[0].split(",");
+        List<Integer> slots = new ArrayList<>(slotSplit.length);
+        for (String slot : slotSplit) {
+            slots.add(Integer.parseInt(slot));
+        }
+
+        List<String> metadata = new ArrayList<>(split.length - 1);
+        for (int i = 1; i < split.length; i++) {
+            metadata.add(split[i]);
+        }
+
+        return new RecipeParameter(Collections.unmodifiableList(slots), Collections.unmodifiableList(metadata));
+    }
+
+    public List<Integer> getSlots() {
+        return slots;
+    }
+
+    public int getMetadataCount() {
+        return metadata.size();
+    }
+
+    /**
+     * Returns the metadata appended after the slots, index 0 being the first value after the slots.
+     */
+    public String getMetadata(int index) {
+        return metadata.get(index);
+    }
+}
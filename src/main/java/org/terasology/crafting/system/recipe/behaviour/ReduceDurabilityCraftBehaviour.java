@@ -49,7 +49,7 @@ public class ReduceDurabilityCraftBehaviour implements IngredientCraftBehaviour<
     @Override
     public List<String> getValidToCraft(EntityRef entity, int multiplier) {
         List<String> result = new LinkedList<>();
-        for (int slot : resolver.getSlots(entity)) {
+        for (int slot : IngredientSlots.getCandidateSlots(entity, matcher, resolver)) {
             if (isValidToCraft(entity, slot, multiplier)) {
                 result.add(String.valueOf(slot));
             }
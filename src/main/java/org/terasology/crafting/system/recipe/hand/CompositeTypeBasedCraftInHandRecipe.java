@@ -15,22 +15,30 @@
  */
 package org.terasology.crafting.system.recipe.hand;
 
+import org.terasology.crafting.system.recipe.behaviour.BehaviourTypes;
 import org.terasology.crafting.system.recipe.behaviour.IngredientCraftBehaviour;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.render.CraftIngredientRenderer;
 import org.terasology.crafting.system.recipe.render.RecipeResultFactory;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.logic.inventory.InventoryUtils;
+import org.terasology.logic.inventory.ItemComponent;
 import org.terasology.rendering.nui.layers.ingame.inventory.ItemIcon;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
 public class CompositeTypeBasedCraftInHandRecipe implements CraftInHandRecipe {
+    public static final int MAX_MATCHING_RESULTS = 16;
+
     private List<IngredientCraftBehaviour<EntityRef>> itemCraftBehaviours = new ArrayList<>();
+    private BehaviourTypes ingredientTypes = new BehaviourTypes();
     private RecipeResultFactory resultFactory;
 
     public CompositeTypeBasedCraftInHandRecipe(RecipeResultFactory resultFactory) {
@@ -38,34 +46,114 @@ public class CompositeTypeBasedCraftInHandRecipe implements CraftInHandRecipe {
     }
 
     public void addItemCraftBehaviour(IngredientCraftBehaviour<EntityRef> itemCraftBehaviour) {
+        ingredientTypes.addUntyped();
+        itemCraftBehaviours.add(itemCraftBehaviour);
+    }
+
+    /**
+     * Adds a behaviour, that accepts exactly the items with CraftInHandIngredientComponent of the specified type.
+     */
+    public void addItemCraftBehaviour(String ingredientType, IngredientCraftBehaviour<EntityRef> itemCraftBehaviour) {
+        ingredientTypes.add(ingredientType);
         itemCraftBehaviours.add(itemCraftBehaviour);
     }
 
+    /**
+     * Returns the ingredient types used by this recipe, or null if the recipe matches some of its ingredients other way.
+     */
+    public Set<String> getIngredientTypes() {
+        return ingredientTypes.getTypes();
+    }
+
+    /**
+     * Returns a result for every combination of the valid parameters of the behaviours, up to MAX_MATCHING_RESULTS,
+     * the last behaviour's parameter changing the fastest. The items of each behaviour are looked up through the
+     * InventoryTypeIndex, so the inventory is not scanned again for every behaviour and combination.
+     */
     @Override
     public List<CraftInHandResult> getMatchingRecipeResults(EntityRef character) {
-        // TODO: Improve searching for different kinds of items of the same type in whole inventory, not just first matching
-        List<String> parameters = new LinkedList<>();
+        List<List<String>> validParameters = new ArrayList<>(itemCraftBehaviours.size());
         for (IngredientCraftBehaviour<EntityRef> itemCraftBehaviour : itemCraftBehaviours) {
-            String parameter = findParameter(character, itemCraftBehaviour);
-            if (parameter == null) {
+            List<String> validToCraft = getDistinctVariants(character, itemCraftBehaviour.getValidToCraft(character, 1));
+            if (validToCraft.isEmpty()) {
                 return null;
             }
-            parameters.add(parameter);
+            validParameters.add(validToCraft);
         }
 
-        return Collections.<CraftInHandResult>singletonList(new CraftResult(parameters));
+        List<CraftInHandResult> results = new ArrayList<>();
+        int[] indices = new int[validParameters.size()];
+        boolean hasNext = true;
+        while (hasNext && results.size() < MAX_MATCHING_RESULTS) {
+            List<String> parameters = new ArrayList<>(indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                parameters.add(validParameters.get(i).get(indices[i]));
+            }
+            results.add(new CraftResult(parameters));
+
+            hasNext = false;
+            for (int i = indices.length - 1; i >= 0; i--) {
+                indices[i]++;
+                if (indices[i] < validParameters.get(i).size()) {
+                    hasNext = true;
+                    break;
+                }
+                indices[i] = 0;
+            }
+        }
+
+        return results;
     }
 
-    private String findParameter(EntityRef character, IngredientCraftBehaviour itemCraftBehaviour) {
-        final List<String> validToCraft = itemCraftBehaviour.getValidToCraft(character, 1);
-        if (validToCraft.size() > 0) {
-            return validToCraft.get(0);
+    /**
+     * Keeps only the first of the parameters pointing at the same kind of item. Behaviours checking tools or presence
+     * return a parameter per slot, which would otherwise show several identical looking results.
+     */
+    private List<String> getDistinctVariants(EntityRef character, List<String> parameters) {
+        List<String> result = new ArrayList<>(parameters.size());
+        List<EntityRef> variantItems = new ArrayList<>(parameters.size());
+        for (String parameter : parameters) {
+            EntityRef item = InventoryUtils.getItemAt(character, RecipeParameter.parse(parameter).getSlots().get(0));
+            if (!containsSameVariant(variantItems, item)) {
+                variantItems.add(item);
+                result.add(parameter);
+            }
         }
-        return null;
+        return result;
     }
 
+    private boolean containsSameVariant(List<EntityRef> variantItems, EntityRef item) {
+        for (EntityRef variantItem : variantItems) {
+            if (InventoryUtils.isSameItem(variantItem, item)) {
+                return true;
+            }
+            // Items that do not stack, like tools, are never the same item, but look the same if of the same prefab
+            Prefab prefab = item.getParentPrefab();
+            if (prefab != null && prefab.equals(variantItem.getParentPrefab()) && !isStackable(item) && !isStackable(variantItem)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStackable(EntityRef item) {
+        ItemComponent itemComponent = item.getComponent(ItemComponent.class);
+        return itemComponent != null && itemComponent.stackId != null && !itemComponent.stackId.isEmpty();
+    }
+
+    /**
+     * Returns null if the parameters do not match the behaviours of this recipe.
+     */
     @Override
     public CraftInHandResult getResultByParameters(List<String> parameters) {
+        if (parameters.size() != itemCraftBehaviours.size()) {
+            return null;
+        }
+        for (String parameter : parameters) {
+            if (!RecipeParameter.isValid(parameter)) {
+                return null;
+            }
+        }
         return new CraftResult(parameters);
     }
 
@@ -15,20 +15,32 @@
  */
 package org.terasology.crafting.system.recipe.hand;
 
-import com.google.common.base.Predicate;
 import org.terasology.crafting.component.CraftInHandIngredientComponent;
+import org.terasology.crafting.system.recipe.behaviour.TypedItemPredicate;
 import org.terasology.entitySystem.entity.EntityRef;
 
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
-public class CraftInHandIngredientPredicate implements Predicate<EntityRef> {
+public class CraftInHandIngredientPredicate implements TypedItemPredicate {
     private String itemType;
 
     public CraftInHandIngredientPredicate(String itemType) {
         this.itemType = itemType;
     }
 
+    /**
+     * Returns the key under which the InventoryTypeIndex keeps the items of the type.
+     */
+    public static String getTypeKey(String itemType) {
+        return "CraftInHandIngredient:" + itemType;
+    }
+
+    @Override
+    public String getTypeKey() {
+        return getTypeKey(itemType);
+    }
+
     @Override
     public boolean apply(EntityRef input) {
         CraftInHandIngredientComponent craftComponent = input.getComponent(CraftInHandIngredientComponent.class);
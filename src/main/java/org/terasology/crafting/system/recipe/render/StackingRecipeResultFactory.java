@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.render;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.List;
+
+/**
+ * Result factory, that is able to tell if the result fits into an inventory slot without creating the result entity.
+ */
+public interface StackingRecipeResultFactory extends RecipeResultFactory {
+    /**
+     * @return true, if the result created with the parameters and multiplier would fit into a single stack together
+     * with the item (possibly an empty slot) passed.
+     */
+    boolean canStackInto(List<String> parameters, int multiplier, EntityRef item);
+}
@@ -16,7 +16,7 @@
 package org.terasology.crafting.system.recipe.render.result;
 
 import org.terasology.utilities.Assets;
-import org.terasology.crafting.system.recipe.render.RecipeResultFactory;
+import org.terasology.crafting.system.recipe.render.StackingRecipeResultFactory;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.registry.CoreRegistry;
@@ -26,7 +26,7 @@ import org.terasology.world.block.items.BlockItemFactory;
 
 import java.util.List;
 
-public class BlockRecipeResultFactory implements RecipeResultFactory {
+public class BlockRecipeResultFactory implements StackingRecipeResultFactory {
     private Block block;
     private int count;
 
@@ -42,7 +42,7 @@ public class BlockRecipeResultFactory implements RecipeResultFactory {
     @Override
     public int getMaxMultiplier(List<String> parameters) {
         if (getBlock(parameters).isStackable()) {
-            return 99 / count;
+            return ResultStackUtils.BLOCK_MAX_STACK_SIZE / count;
         } else {
             return 1;
         }
@@ -57,6 +57,13 @@ public class BlockRecipeResultFactory implements RecipeResultFactory {
         return new BlockItemFactory(CoreRegistry.get(EntityManager.class)).newInstance(getBlock(parameters).getBlockFamily(), count * multiplier);
     }
 
+    @Override
+    public boolean canStackInto(List<String> parameters, int multiplier, EntityRef item) {
+        String stackId = ResultStackUtils.getBlockStackId(getBlock(parameters).getBlockFamily());
+        int stackCount = (stackId != null) ? count * multiplier : 1;
+        return ResultStackUtils.canStackInto(stackId, ResultStackUtils.BLOCK_MAX_STACK_SIZE, stackCount, item);
+    }
+
     @Override
     public int getCount(List<String> parameters) {
         return count;
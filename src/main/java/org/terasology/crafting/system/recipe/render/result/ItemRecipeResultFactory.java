@@ -15,7 +15,7 @@
  */
 package org.terasology.crafting.system.recipe.render.result;
 
-import org.terasology.crafting.system.recipe.render.RecipeResultFactory;
+import org.terasology.crafting.system.recipe.render.StackingRecipeResultFactory;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.prefab.Prefab;
@@ -26,7 +26,7 @@ import org.terasology.rendering.nui.layers.ingame.inventory.ItemIcon;
 
 import java.util.List;
 
-public class ItemRecipeResultFactory implements RecipeResultFactory {
+public class ItemRecipeResultFactory implements StackingRecipeResultFactory {
     private Prefab prefab;
     private int count;
 
@@ -54,6 +54,12 @@ public class ItemRecipeResultFactory implements RecipeResultFactory {
         return entity;
     }
 
+    @Override
+    public boolean canStackInto(List<String> parameters, int multiplier, EntityRef item) {
+        final ItemComponent resultItem = prefab.getComponent(ItemComponent.class);
+        return ResultStackUtils.canStackInto(resultItem.stackId, resultItem.maxStackSize, count * multiplier, item);
+    }
+
     @Override
     public int getCount(List<String> parameters) {
         return count;
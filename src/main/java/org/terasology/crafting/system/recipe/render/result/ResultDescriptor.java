@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.render.result;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.world.block.family.BlockFamily;
+
+/**
+ * Resolved form of a result defined as "count*prefabOrBlockFamily" (the count being optional).
+ */
+public final class ResultDescriptor {
+    private final int count;
+    private final Prefab prefab;
+    private final BlockFamily blockFamily;
+    private final String stackId;
+    private final int maxStackSize;
+
+    public ResultDescriptor(int count, Prefab prefab) {
+        this.count = count;
+        this.prefab = prefab;
+        this.blockFamily = null;
+        ItemComponent item = prefab.getComponent(ItemComponent.class);
+        this.stackId = item.stackId;
+        this.maxStackSize = item.maxStackSize;
+    }
+
+    public ResultDescriptor(int count, BlockFamily blockFamily) {
+        this.count = count;
+        this.prefab = null;
+        this.blockFamily = blockFamily;
+        this.stackId = ResultStackUtils.getBlockStackId(blockFamily);
+        this.maxStackSize = ResultStackUtils.BLOCK_MAX_STACK_SIZE;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Prefab of the result, or null if the result is a block.
+     */
+    public Prefab getPrefab() {
+        return prefab;
+    }
+
+    /**
+     * @return Block family of the result, or null if the result is an item prefab.
+     */
+    public BlockFamily getBlockFamily() {
+        return blockFamily;
+    }
+
+    public boolean canStackInto(EntityRef item) {
+        // Items of non-stackable blocks are created with stack count of 1, no matter the count
+        int stackCount = (blockFamily != null && stackId == null) ? 1 : count;
+        return ResultStackUtils.canStackInto(stackId, maxStackSize, stackCount, item);
+    }
+}
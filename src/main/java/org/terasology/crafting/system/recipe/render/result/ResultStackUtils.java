@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.crafting.system.recipe.render.result;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.world.block.family.BlockFamily;
+
+/**
+ * Answers InventoryUtils.canStackInto questions from the stack id and size of a result, that was not created yet.
+ */
+public final class ResultStackUtils {
+    public static final int BLOCK_MAX_STACK_SIZE = 99;
+
+    private ResultStackUtils() {
+    }
+
+    /**
+     * Returns the stack id that BlockItemFactory assigns to items of the block family, or null if they do not stack.
+     */
+    public static String getBlockStackId(BlockFamily blockFamily) {
+        if (blockFamily.getArchetypeBlock().isStackable()) {
+            return "block:" + blockFamily.getURI().toString();
+        }
+        return null;
+    }
+
+    public static boolean canStackInto(String stackId, int maxStackSize, int stackCount, EntityRef item) {
+        if (stackCount > maxStackSize) {
+            return false;
+        }
+        if (!item.exists()) {
+            return true;
+        }
+        ItemComponent itemComponent = item.getComponent(ItemComponent.class);
+        if (itemComponent == null || stackId == null || stackId.isEmpty() || !stackId.equals(itemComponent.stackId)) {
+            return false;
+        }
+        return stackCount + itemComponent.stackCount <= itemComponent.maxStackSize;
+    }
+}
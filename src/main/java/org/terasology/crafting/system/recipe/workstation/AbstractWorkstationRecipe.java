@@ -15,50 +15,114 @@
  */
 package org.terasology.crafting.system.recipe.workstation;
 
+import org.terasology.crafting.component.CraftingStationIngredientComponent;
+import org.terasology.crafting.component.CraftingStationToolComponent;
+import org.terasology.crafting.system.CraftingStationResultCache;
+import org.terasology.crafting.system.recipe.behaviour.BehaviourTypes;
 import org.terasology.crafting.system.recipe.behaviour.IngredientCraftBehaviour;
 import org.terasology.crafting.system.recipe.render.CraftIngredientRenderer;
 import org.terasology.crafting.system.recipe.render.RecipeResultFactory;
+import org.terasology.crafting.system.recipe.render.StackingRecipeResultFactory;
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.heat.HeatUtils;
+import org.terasology.heat.HeatSnapshotManager;
 import org.terasology.logic.inventory.InventoryUtils;
 import org.terasology.logic.inventory.ItemComponent;
 import org.terasology.math.TeraMath;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.nui.layers.ingame.inventory.ItemIcon;
 import org.terasology.workstation.process.WorkstationInventoryUtils;
-import org.terasology.world.BlockEntityRegistry;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe {
+    private static final int MAX_DISPLAYED_RESULTS = 64;
+
     private List<IngredientCraftBehaviour<EntityRef>> ingredientBehaviours = new ArrayList<>();
     private List<IngredientCraftBehaviour<EntityRef>> toolBehaviours = new ArrayList<>();
     private List<IngredientCraftBehaviour<String>> fluidBehaviours = new ArrayList<>();
 
     private List<IngredientCraftBehaviour<?>> allBehaviours = new ArrayList<>();
 
+    private BehaviourTypes ingredientTypes = new BehaviourTypes();
+    private BehaviourTypes toolTypes = new BehaviourTypes();
+    private BehaviourTypes fluidTypes = new BehaviourTypes();
+
     private float requiredHeat;
     private long processingDuration;
 
     private RecipeResultFactory resultFactory;
 
     public void addIngredientBehaviour(IngredientCraftBehaviour<EntityRef> behaviour) {
+        ingredientTypes.addUntyped();
+        ingredientBehaviours.add(behaviour);
+        allBehaviours.add(behaviour);
+    }
+
+    /**
+     * Adds an ingredient behaviour, that accepts exactly the items with CraftingStationIngredientComponent of the specified type.
+     */
+    public void addIngredientBehaviour(String ingredientType, IngredientCraftBehaviour<EntityRef> behaviour) {
+        ingredientTypes.add(ingredientType);
         ingredientBehaviours.add(behaviour);
         allBehaviours.add(behaviour);
     }
 
     public void addToolBehaviour(IngredientCraftBehaviour<EntityRef> behaviour) {
+        toolTypes.addUntyped();
+        toolBehaviours.add(behaviour);
+        allBehaviours.add(behaviour);
+    }
+
+    /**
+     * Adds a tool behaviour, that accepts exactly the items with CraftingStationToolComponent containing the specified type.
+     */
+    public void addToolBehaviour(String toolType, IngredientCraftBehaviour<EntityRef> behaviour) {
+        toolTypes.add(toolType);
         toolBehaviours.add(behaviour);
         allBehaviours.add(behaviour);
     }
 
     public void addFluidBehaviour(IngredientCraftBehaviour<String> behaviour) {
+        fluidTypes.addUntyped();
+        fluidBehaviours.add(behaviour);
+        allBehaviours.add(behaviour);
+    }
+
+    /**
+     * Adds a fluid behaviour, that accepts exactly the fluid of the specified type.
+     */
+    public void addFluidBehaviour(String fluidType, IngredientCraftBehaviour<String> behaviour) {
+        fluidTypes.add(fluidType.toLowerCase());
         fluidBehaviours.add(behaviour);
         allBehaviours.add(behaviour);
     }
 
+    /**
+     * Returns the ingredient types used by this recipe, or null if the recipe matches some of its ingredients other way.
+     */
+    public Set<String> getIngredientTypes() {
+        return ingredientTypes.getTypes();
+    }
+
+    /**
+     * Returns the tool types used by this recipe, or null if the recipe matches some of its tools other way.
+     */
+    public Set<String> getToolTypes() {
+        return toolTypes.getTypes();
+    }
+
+    /**
+     * Returns the (lower case) fluid types used by this recipe, or null if the recipe matches some of its fluids other way.
+     */
+    public Set<String> getFluidTypes() {
+        return fluidTypes.getTypes();
+    }
+
     public void setResultFactory(RecipeResultFactory resultFactory) {
         this.resultFactory = resultFactory;
     }
@@ -73,6 +137,10 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
 
     @Override
     public boolean hasAsComponent(EntityRef item) {
+        if (ingredientTypes.isKnown()) {
+            CraftingStationIngredientComponent ingredient = item.getComponent(CraftingStationIngredientComponent.class);
+            return ingredient != null && ingredientTypes.contains(ingredient.type);
+        }
         for (IngredientCraftBehaviour<EntityRef> ingredientBehaviour : ingredientBehaviours) {
             if (ingredientBehaviour.isValidAnyAmount(item)) {
                 return true;
@@ -83,6 +151,17 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
 
     @Override
     public boolean hasAsTool(EntityRef item) {
+        if (toolTypes.isKnown()) {
+            CraftingStationToolComponent tool = item.getComponent(CraftingStationToolComponent.class);
+            if (tool != null) {
+                for (String toolType : tool.type) {
+                    if (toolTypes.contains(toolType)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
         for (IngredientCraftBehaviour<EntityRef> toolBehaviour : toolBehaviours) {
             if (toolBehaviour.isValidAnyAmount(item)) {
                 return true;
@@ -93,6 +172,9 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
 
     @Override
     public boolean hasFluidAsComponent(String fluidType) {
+        if (fluidTypes.isKnown()) {
+            return fluidTypes.contains(fluidType);
+        }
         for (IngredientCraftBehaviour<String> fluidBehaviour : fluidBehaviours) {
             if (fluidBehaviour.isValidAnyAmount(fluidType)) {
                 return true;
@@ -104,6 +186,26 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
 
     @Override
     public List<? extends CraftingStationResult> getMatchingRecipeResultsForDisplay(EntityRef station) {
+        Iterator<CraftingStationResult> results = getMatchingRecipeResults(station);
+        if (results == null) {
+            return null;
+        }
+
+        List<CraftingStationResult> resultList = new ArrayList<>();
+        while (results.hasNext() && resultList.size() < MAX_DISPLAYED_RESULTS) {
+            resultList.add(results.next());
+        }
+
+        return resultList;
+    }
+
+    /**
+     * Returns the results matching the contents of the station, one for each combination of the valid parameters of the
+     * behaviours. The combinations are created only as the iterator advances, so the caller may stop at any point.
+     *
+     * @return Iterator over the results, or null if any of the behaviours has no valid parameter.
+     */
+    public Iterator<CraftingStationResult> getMatchingRecipeResults(EntityRef station) {
         List<List<String>> listOfResults = new ArrayList<>();
 
         for (IngredientCraftBehaviour<?> behaviour : allBehaviours) {
@@ -112,14 +214,7 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
             }
         }
 
-        List<Result> resultList = new LinkedList<>();
-
-        List<List<String>> grouping = createParameterCombinationsFromIndex(listOfResults, 0);
-        for (List<String> groupingEntry : grouping) {
-            resultList.add(new Result(groupingEntry));
-        }
-
-        return resultList;
+        return new ResultIterator(station, listOfResults);
     }
 
     private boolean appendBehaviourMatches(EntityRef station, List<List<String>> listOfResults, IngredientCraftBehaviour<?> ingredientBehaviour) {
@@ -128,40 +223,77 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
             return false;
         }
 
-        listOfResults.add(validToCraft);
+        listOfResults.add(new ArrayList<>(validToCraft));
         return true;
     }
 
-    private List<List<String>> createParameterCombinationsFromIndex(List<List<String>> listOfResults, int index) {
-        List<List<String>> result = new LinkedList<>();
+    @Override
+    public CraftingStationResult getResultByParameters(EntityRef station, List<String> resultParameters) {
+        CraftingStationResultCache resultCache = CoreRegistry.get(CraftingStationResultCache.class);
+        if (resultCache == null) {
+            return new Result(resultParameters);
+        }
+
+        CraftingStationResult result = resultCache.getResult(station, this, resultParameters);
+        if (result == null) {
+            result = new Result(new ArrayList<>(resultParameters));
+            resultCache.putResult(station, this, resultParameters, result);
+        }
+        return result;
+    }
+
+    /**
+     * Walks the combinations of the parameters like an odometer, the last behaviour's parameter changing the fastest.
+     */
+    private final class ResultIterator implements Iterator<CraftingStationResult> {
+        private EntityRef station;
+        private List<List<String>> listOfResults;
+        private int[] indices;
+        private boolean hasNext;
+
+        private ResultIterator(EntityRef station, List<List<String>> listOfResults) {
+            this.station = station;
+            this.listOfResults = listOfResults;
+            this.indices = new int[listOfResults.size()];
+            this.hasNext = true;
+        }
 
-        List<String> parameters = listOfResults.get(index);
-        if (index + 1 < listOfResults.size()) {
-            List<List<String>> nextParameterCombinations = createParameterCombinationsFromIndex(listOfResults, index + 1);
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
 
-            // Combination of each parameter for this index and all following
-            for (String parameter : parameters) {
-                for (List<String> followingParameterCombinations : nextParameterCombinations) {
-                    List<String> parameterCombination = new LinkedList<>();
-                    parameterCombination.add(parameter);
-                    parameterCombination.addAll(followingParameterCombinations);
-                    result.add(parameterCombination);
-                }
+        @Override
+        public CraftingStationResult next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
             }
-        } else {
-            for (String parameter : parameters) {
-                List<String> paramCombination = new LinkedList<>();
-                paramCombination.add(parameter);
-                result.add(paramCombination);
+
+            List<String> parameters = new ArrayList<>(indices.length);
+            for (int i = 0; i < indices.length; i++) {
+                parameters.add(listOfResults.get(i).get(indices[i]));
             }
+
+            advance();
+
+            return getResultByParameters(station, parameters);
         }
 
-        return result;
-    }
+        private void advance() {
+            for (int i = indices.length - 1; i >= 0; i--) {
+                indices[i]++;
+                if (indices[i] < listOfResults.get(i).size()) {
+                    return;
+                }
+                indices[i] = 0;
+            }
+            hasNext = false;
+        }
 
-    @Override
-    public CraftingStationResult getResultByParameters(EntityRef station, List<String> resultParameters) {
-        return new Result(resultParameters);
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
     }
 
     private class Result implements CraftingStationResult {
@@ -212,7 +344,7 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
         @Override
         public boolean isValidForCrafting(EntityRef station, int count) {
             if (requiredHeat > 0) {
-                float heat = HeatUtils.calculateHeatForEntity(station, CoreRegistry.get(BlockEntityRegistry.class));
+                float heat = CoreRegistry.get(HeatSnapshotManager.class).getHeat(station);
                 if (requiredHeat > heat) {
                     return false;
                 }
@@ -226,6 +358,16 @@ public abstract class AbstractWorkstationRecipe implements CraftingStationRecipe
                 index++;
             }
 
+            if (resultFactory instanceof StackingRecipeResultFactory) {
+                StackingRecipeResultFactory stackingResultFactory = (StackingRecipeResultFactory) resultFactory;
+                for (int slot : WorkstationInventoryUtils.getAssignedSlots(station, "OUTPUT")) {
+                    if (stackingResultFactory.canStackInto(parameters, count, InventoryUtils.getItemAt(station, slot))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
             EntityRef resultItem = resultFactory.createResult(parameters, count);
             try {
                 ItemComponent item = resultItem.getComponent(ItemComponent.class);
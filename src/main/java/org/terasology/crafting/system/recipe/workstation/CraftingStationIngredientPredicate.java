@@ -15,20 +15,32 @@
  */
 package org.terasology.crafting.system.recipe.workstation;
 
-import com.google.common.base.Predicate;
 import org.terasology.crafting.component.CraftingStationIngredientComponent;
+import org.terasology.crafting.system.recipe.behaviour.TypedItemPredicate;
 import org.terasology.entitySystem.entity.EntityRef;
 
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
-public class CraftingStationIngredientPredicate implements Predicate<EntityRef> {
+public class CraftingStationIngredientPredicate implements TypedItemPredicate {
     private String itemType;
 
     public CraftingStationIngredientPredicate(String itemType) {
         this.itemType = itemType;
     }
 
+    /**
+     * Returns the key under which the InventoryTypeIndex keeps the items of the type.
+     */
+    public static String getTypeKey(String itemType) {
+        return "CraftingStationIngredient:" + itemType;
+    }
+
+    @Override
+    public String getTypeKey() {
+        return getTypeKey(itemType);
+    }
+
     @Override
     public boolean apply(EntityRef input) {
         CraftingStationIngredientComponent component = input.getComponent(CraftingStationIngredientComponent.class);
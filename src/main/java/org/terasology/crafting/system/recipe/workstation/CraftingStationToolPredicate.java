@@ -15,20 +15,32 @@
  */
 package org.terasology.crafting.system.recipe.workstation;
 
-import com.google.common.base.Predicate;
 import org.terasology.crafting.component.CraftingStationToolComponent;
+import org.terasology.crafting.system.recipe.behaviour.TypedItemPredicate;
 import org.terasology.entitySystem.entity.EntityRef;
 
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
-public class CraftingStationToolPredicate implements Predicate<EntityRef> {
+public class CraftingStationToolPredicate implements TypedItemPredicate {
     private String toolType;
 
     public CraftingStationToolPredicate(String toolType) {
         this.toolType = toolType;
     }
 
+    /**
+     * Returns the key under which the InventoryTypeIndex keeps the items of the type.
+     */
+    public static String getTypeKey(String toolType) {
+        return "CraftingStationTool:" + toolType;
+    }
+
+    @Override
+    public String getTypeKey() {
+        return getTypeKey(toolType);
+    }
+
     @Override
     public boolean apply(EntityRef input) {
         CraftingStationToolComponent component = input.getComponent(CraftingStationToolComponent.class);
@@ -26,17 +26,17 @@ import org.terasology.crafting.system.recipe.behaviour.ReduceDurabilityCraftBeha
 public class DefaultWorkstationRecipe extends AbstractWorkstationRecipe {
     public void addIngredient(String type, int count) {
         final ConsumeItemCraftBehaviour behaviour = new ConsumeItemCraftBehaviour(new CraftingStationIngredientPredicate(type), count, new InventorySlotTypeResolver("INPUT"));
-        addIngredientBehaviour(behaviour);
+        addIngredientBehaviour(type, behaviour);
     }
 
     public void addRequiredTool(String toolType, int durability) {
         final ReduceDurabilityCraftBehaviour behaviour = new ReduceDurabilityCraftBehaviour(
                 new CraftingStationToolPredicate(toolType), durability, new InventorySlotTypeResolver("TOOL"));
-        addToolBehaviour(behaviour);
+        addToolBehaviour(toolType, behaviour);
     }
 
     public void addFluid(String fluidType, float volume) {
         final ConsumeFluidBehaviour behaviour = new ConsumeFluidBehaviour(fluidType, volume, new InventorySlotTypeResolver("FLUID_INPUT"));
-        addFluidBehaviour(behaviour);
+        addFluidBehaviour(fluidType, behaviour);
     }
 }
@@ -34,6 +34,8 @@ import org.terasology.rendering.nui.widgets.UIButton;
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
 public class CraftRecipeWidget extends CoreWidget {
+    private static final int BULK_CRAFT_JOBS = 20;
+
     private EntityRef entity;
     private CraftProcessDisplay processDisplay;
     private final CreationCallback callback;
@@ -45,6 +47,7 @@ public class CraftRecipeWidget extends CoreWidget {
     private int leftIndent;
 
     private int multiplier = 1;
+    private int jobs = 1;
 
     public CraftRecipeWidget(int leftIndent, final EntityRef entity,
                              final CraftProcessDisplay processDisplay, CreationCallback callback) {
@@ -59,7 +62,7 @@ public class CraftRecipeWidget extends CoreWidget {
                 new Binding<Integer>() {
                     @Override
                     public Integer get() {
-                        return processDisplay.getResultQuantity() * multiplier;
+                        return processDisplay.getResultQuantity() * multiplier * jobs;
                     }
 
                     @Override
@@ -94,7 +97,11 @@ public class CraftRecipeWidget extends CoreWidget {
     }
 
     private void produce() {
-        callback.create(multiplier);
+        if (jobs > 1 && callback instanceof BulkCreationCallback) {
+            ((BulkCreationCallback) callback).create(multiplier, jobs);
+        } else {
+            callback.create(multiplier);
+        }
     }
 
     @Override
@@ -126,6 +133,11 @@ public class CraftRecipeWidget extends CoreWidget {
         } else {
             multiplier = 1;
         }
+        if (event.getKeyboard().isKeyDown(Keyboard.KeyId.LEFT_ALT) && callback instanceof BulkCreationCallback) {
+            jobs = BULK_CRAFT_JOBS;
+        } else {
+            jobs = 1;
+        }
         return false;
     }
 
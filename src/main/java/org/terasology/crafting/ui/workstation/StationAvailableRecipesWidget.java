@@ -15,17 +15,16 @@
  */
 package org.terasology.crafting.ui.workstation;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.TreeMultimap;
 import org.terasology.crafting.event.CraftingWorkstationProcessRequest;
-import org.terasology.crafting.system.CraftingWorkstationProcess;
+import org.terasology.crafting.system.StationRecipeAvailabilityIndex;
 import org.terasology.crafting.system.recipe.workstation.CraftingStationRecipe;
+import org.terasology.crafting.ui.BulkCreationCallback;
 import org.terasology.crafting.ui.CraftRecipeWidget;
-import org.terasology.crafting.ui.CreationCallback;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.logic.players.LocalPlayer;
 import org.terasology.math.geom.Vector2i;
@@ -34,9 +33,6 @@ import org.terasology.rendering.nui.Canvas;
 import org.terasology.rendering.nui.CoreWidget;
 import org.terasology.rendering.nui.UIWidget;
 import org.terasology.rendering.nui.layouts.ColumnLayout;
-import org.terasology.workstation.component.WorkstationComponent;
-import org.terasology.workstation.process.WorkstationProcess;
-import org.terasology.workstation.system.WorkstationRegistry;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -52,8 +48,8 @@ import java.util.TreeSet;
 public class StationAvailableRecipesWidget extends CoreWidget {
     private Set<String> openCategories = new HashSet<>();
     private Set<String> displayedOpenCategories = new HashSet<>();
-    private Multimap<String, List<String>> availableRecipes = HashMultimap.create();
-    private WorkstationRegistry registry;
+    private int displayedRevision = -1;
+    private StationRecipeAvailabilityIndex availabilityIndex;
 
     private EntityRef station;
 
@@ -63,7 +59,7 @@ public class StationAvailableRecipesWidget extends CoreWidget {
         layout = new ColumnLayout();
         layout.setColumns(1);
 
-        registry = CoreRegistry.get(WorkstationRegistry.class);
+        availabilityIndex = CoreRegistry.get(StationRecipeAvailabilityIndex.class);
     }
 
     public void setStation(EntityRef station) {
@@ -73,24 +69,7 @@ public class StationAvailableRecipesWidget extends CoreWidget {
 
     @Override
     public void update(float delta) {
-        // TODO: Naive approach by comparing all the possible recipes to those currently displayed
-        WorkstationComponent workstation = station.getComponent(WorkstationComponent.class);
-        Multimap<String, List<String>> recipes = HashMultimap.create();
-        for (WorkstationProcess workstationProcess : registry.getWorkstationProcesses(workstation.supportedProcessTypes.keySet())) {
-            if (workstationProcess instanceof CraftingWorkstationProcess) {
-                CraftingStationRecipe craftingStationRecipe = ((CraftingWorkstationProcess) workstationProcess).getCraftingWorkstationRecipe();
-                String recipeId = workstationProcess.getId();
-                List<? extends CraftingStationRecipe.CraftingStationResult> results = craftingStationRecipe.getMatchingRecipeResultsForDisplay(station);
-                if (results != null) {
-                    for (CraftingStationRecipe.CraftingStationResult result : results) {
-                        List<String> parameters = result.getResultParameters();
-                        recipes.put(recipeId, parameters);
-                    }
-                }
-            }
-        }
-
-        if (!openCategories.equals(displayedOpenCategories) || !recipes.equals(availableRecipes)) {
+        if (!openCategories.equals(displayedOpenCategories) || availabilityIndex.getRevision(station) != displayedRevision) {
             reloadRecipes();
         }
 
@@ -118,7 +97,6 @@ public class StationAvailableRecipesWidget extends CoreWidget {
     }
 
     public void loadRecipes() {
-        availableRecipes.clear();
         displayedOpenCategories.clear();
 
         displayedOpenCategories.addAll(openCategories);
@@ -130,31 +108,23 @@ public class StationAvailableRecipesWidget extends CoreWidget {
         Map<String, Multimap<String, CraftingStationRecipe.CraftingStationResult>> categoryRecipesMap =
                 Maps.newHashMap();
 
-        WorkstationComponent workstation = station.getComponent(WorkstationComponent.class);
-        for (WorkstationProcess workstationProcess : registry.getWorkstationProcesses(workstation.supportedProcessTypes.keySet())) {
-            if (workstationProcess instanceof CraftingWorkstationProcess) {
-                String recipeId = workstationProcess.getId();
-                List<? extends CraftingStationRecipe.CraftingStationResult> results =
-                        ((CraftingWorkstationProcess) workstationProcess).getCraftingWorkstationRecipe().getMatchingRecipeResultsForDisplay(station);
-                if (results != null) {
-                    for (CraftingStationRecipe.CraftingStationResult result : results) {
-                        availableRecipes.put(recipeId, result.getResultParameters());
-
-                        String category = getCategory(recipeId);
-                        if (category == null) {
-                            withoutCategory.put(recipeId, result);
-                        } else {
-                            Multimap<String, CraftingStationRecipe.CraftingStationResult> categoryRecipes = categoryRecipesMap.get(category);
-                            if (categoryRecipes == null) {
-                                categoryRecipes = LinkedHashMultimap.create();
-                                categoryRecipesMap.put(category, categoryRecipes);
-                            }
-                            categoryRecipes.put(recipeId, result);
-                            String topLevel = fillRelationships(categoryRelationships, category);
-                            topLevelCategories.add(topLevel);
-                        }
-                    }
+        displayedRevision = availabilityIndex.getRevision(station);
+        for (Map.Entry<String, CraftingStationRecipe.CraftingStationResult> recipeResult : availabilityIndex.getAvailableRecipes(station).entries()) {
+            String recipeId = recipeResult.getKey();
+            CraftingStationRecipe.CraftingStationResult result = recipeResult.getValue();
+
+            String category = getCategory(recipeId);
+            if (category == null) {
+                withoutCategory.put(recipeId, result);
+            } else {
+                Multimap<String, CraftingStationRecipe.CraftingStationResult> categoryRecipes = categoryRecipesMap.get(category);
+                if (categoryRecipes == null) {
+                    categoryRecipes = LinkedHashMultimap.create();
+                    categoryRecipesMap.put(category, categoryRecipes);
                 }
+                categoryRecipes.put(recipeId, result);
+                String topLevel = fillRelationships(categoryRelationships, category);
+                topLevelCategories.add(topLevel);
             }
         }
 
@@ -202,12 +172,18 @@ public class StationAvailableRecipesWidget extends CoreWidget {
             CraftingStationRecipe.CraftingStationResult result = recipeResult.getValue();
             final List<String> parameters = result.getResultParameters();
             CraftRecipeWidget recipeDisplay = new CraftRecipeWidget(25 * level, station, result,
-                    new CreationCallback() {
+                    new BulkCreationCallback() {
                         @Override
                         public void create(int count) {
                             EntityRef player = CoreRegistry.get(LocalPlayer.class).getCharacterEntity();
                             player.send(new CraftingWorkstationProcessRequest(station, recipeId, parameters, count));
                         }
+
+                        @Override
+                        public void create(int count, int jobs) {
+                            EntityRef player = CoreRegistry.get(LocalPlayer.class).getCharacterEntity();
+                            player.send(new CraftingWorkstationProcessRequest(station, recipeId, parameters, count, jobs));
+                        }
                     });
             layout.addWidget(recipeDisplay);
         }
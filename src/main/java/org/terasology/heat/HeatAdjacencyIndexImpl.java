@@ -0,0 +1,223 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.heat.component.HeatConsumerComponent;
+import org.terasology.heat.component.HeatProducerComponent;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.BlockEntityRegistry;
+import org.terasology.world.block.BlockComponent;
+import org.terasology.world.block.regions.BlockRegionComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Links are looked up in the world the first time they are needed, and dropped whenever a producer or consumer
+ * at either end of them is placed, removed, or changes the blocks it occupies.
+ */
+@RegisterSystem
+@Share(HeatAdjacencyIndex.class)
+public class HeatAdjacencyIndexImpl extends BaseComponentSystem implements HeatAdjacencyIndex {
+    @In
+    private BlockEntityRegistry blockEntityRegistry;
+    @In
+    private HeatSnapshotManager heatSnapshotManager;
+
+    private Map<EntityRef, List<EntityRef>> consumerHeatSources = new HashMap<>();
+    private Map<EntityRef, List<EntityRef>> producerHeatedConsumers = new HashMap<>();
+    // Reverse of the above, from an entity to the cached lists it appears in
+    private Map<EntityRef, Set<EntityRef>> heatSourceLinks = new HashMap<>();
+    private Map<EntityRef, Set<EntityRef>> heatedConsumerLinks = new HashMap<>();
+
+    @Override
+    public List<EntityRef> getHeatSources(EntityRef consumer) {
+        List<EntityRef> heatSources = consumerHeatSources.get(consumer);
+        if (heatSources == null) {
+            heatSources = findHeatSources(consumer);
+            consumerHeatSources.put(consumer, heatSources);
+            addLinks(heatSourceLinks, heatSources, consumer);
+        }
+        return heatSources;
+    }
+
+    @Override
+    public List<EntityRef> getHeatedConsumers(EntityRef producer) {
+        List<EntityRef> heatedConsumers = producerHeatedConsumers.get(producer);
+        if (heatedConsumers == null) {
+            heatedConsumers = findHeatedConsumers(producer);
+            producerHeatedConsumers.put(producer, heatedConsumers);
+            addLinks(heatedConsumerLinks, heatedConsumers, producer);
+        }
+        return heatedConsumers;
+    }
+
+    private List<EntityRef> findHeatSources(EntityRef consumer) {
+        if (!isPlacedInWorld(consumer)) {
+            return Collections.emptyList();
+        }
+
+        List<EntityRef> result = new ArrayList<>();
+        for (Map.Entry<Vector3i, Side> heaterBlock : HeatUtils.getPotentialHeatSourceBlocksForConsumer(consumer).entrySet()) {
+            EntityRef potentialHeatProducer = blockEntityRegistry.getEntityAt(heaterBlock.getKey());
+            HeatProducerComponent producer = potentialHeatProducer.getComponent(HeatProducerComponent.class);
+            if (producer != null && producer.heatDirections.contains(heaterBlock.getValue().reverse())) {
+                result.add(potentialHeatProducer);
+            }
+        }
+        return result;
+    }
+
+    private List<EntityRef> findHeatedConsumers(EntityRef producer) {
+        if (!isPlacedInWorld(producer)) {
+            return Collections.emptyList();
+        }
+
+        List<EntityRef> result = new ArrayList<>();
+        for (Map.Entry<Vector3i, Side> heatedBlock : HeatUtils.getPotentialHeatedBlocksForProducer(producer).entrySet()) {
+            EntityRef potentialConsumer = blockEntityRegistry.getEntityAt(heatedBlock.getKey());
+            HeatConsumerComponent consumer = potentialConsumer.getComponent(HeatConsumerComponent.class);
+            if (consumer != null && consumer.heatDirections.contains(heatedBlock.getValue().reverse())) {
+                result.add(potentialConsumer);
+            }
+        }
+        return result;
+    }
+
+    private boolean isPlacedInWorld(EntityRef entity) {
+        return entity.hasComponent(BlockComponent.class) || entity.hasComponent(BlockRegionComponent.class);
+    }
+
+    private void heatEntityMoved(EntityRef entity) {
+        // Heat calculated with the old links is no longer valid
+        heatSnapshotManager.discardSnapshot();
+
+        forgetHeatSources(entity);
+        forgetHeatedConsumers(entity);
+
+        // Forget the links to where the entity was before
+        Set<EntityRef> linkedConsumers = heatSourceLinks.remove(entity);
+        if (linkedConsumers != null) {
+            for (EntityRef consumer : linkedConsumers) {
+                forgetHeatSources(consumer);
+            }
+        }
+        Set<EntityRef> linkedProducers = heatedConsumerLinks.remove(entity);
+        if (linkedProducers != null) {
+            for (EntityRef producer : linkedProducers) {
+                forgetHeatedConsumers(producer);
+            }
+        }
+
+        // And to where it is now
+        if (entity.hasComponent(HeatProducerComponent.class)) {
+            for (EntityRef consumer : findHeatedConsumers(entity)) {
+                forgetHeatSources(consumer);
+            }
+        }
+        if (entity.hasComponent(HeatConsumerComponent.class)) {
+            for (EntityRef producer : findHeatSources(entity)) {
+                forgetHeatedConsumers(producer);
+            }
+        }
+    }
+
+    private void forgetHeatSources(EntityRef consumer) {
+        List<EntityRef> heatSources = consumerHeatSources.remove(consumer);
+        if (heatSources != null) {
+            removeLinks(heatSourceLinks, heatSources, consumer);
+        }
+    }
+
+    private void forgetHeatedConsumers(EntityRef producer) {
+        List<EntityRef> heatedConsumers = producerHeatedConsumers.remove(producer);
+        if (heatedConsumers != null) {
+            removeLinks(heatedConsumerLinks, heatedConsumers, producer);
+        }
+    }
+
+    private void addLinks(Map<EntityRef, Set<EntityRef>> links, List<EntityRef> linkedEntities, EntityRef owner) {
+        for (EntityRef linkedEntity : linkedEntities) {
+            Set<EntityRef> owners = links.get(linkedEntity);
+            if (owners == null) {
+                owners = new HashSet<>();
+                links.put(linkedEntity, owners);
+            }
+            owners.add(owner);
+        }
+    }
+
+    private void removeLinks(Map<EntityRef, Set<EntityRef>> links, List<EntityRef> linkedEntities, EntityRef owner) {
+        for (EntityRef linkedEntity : linkedEntities) {
+            Set<EntityRef> owners = links.get(linkedEntity);
+            if (owners != null) {
+                owners.remove(owner);
+                if (owners.isEmpty()) {
+                    links.remove(linkedEntity);
+                }
+            }
+        }
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerActivated(OnActivatedComponent event, EntityRef entity) {
+        heatEntityMoved(entity);
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        heatEntityMoved(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerActivated(OnActivatedComponent event, EntityRef entity) {
+        heatEntityMoved(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        heatEntityMoved(entity);
+    }
+
+    @ReceiveEvent(components = {BlockComponent.class})
+    public void blockChanged(OnChangedComponent event, EntityRef entity) {
+        if (entity.hasComponent(HeatProducerComponent.class) || entity.hasComponent(HeatConsumerComponent.class)) {
+            heatEntityMoved(entity);
+        }
+    }
+
+    @ReceiveEvent(components = {BlockRegionComponent.class})
+    public void blockRegionChanged(OnChangedComponent event, EntityRef entity) {
+        if (entity.hasComponent(HeatProducerComponent.class) || entity.hasComponent(HeatConsumerComponent.class)) {
+            heatEntityMoved(entity);
+        }
+    }
+}
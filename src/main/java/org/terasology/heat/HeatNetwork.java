@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.geom.Vector3i;
+
+/**
+ * Simulation of heat conducted from producers through blocks of stone, clay and brick. When no heat is being
+ * conducted, heat only flows from producers directly into the consumers next to them.
+ */
+public interface HeatNetwork {
+    /**
+     * @return Heat above the ambient temperature held by the block at the position, 0 if it does not conduct heat.
+     */
+    float getConductedHeat(Vector3i position);
+
+    /**
+     * @return Heat conducted into the consumer through the blocks next to its heating faces, 0 if there is none.
+     */
+    float getConductedHeat(EntityRef consumer);
+}
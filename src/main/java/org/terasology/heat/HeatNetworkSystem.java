@@ -0,0 +1,316 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import com.google.common.collect.Sets;
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.heat.component.HeatConsumerComponent;
+import org.terasology.heat.component.HeatProducerComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Side;
+import org.terasology.math.geom.Vector3i;
+import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockComponent;
+import org.terasology.world.block.regions.BlockRegionComponent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Conducted heat is kept only for the blocks that hold some, partitioned by chunk, and stepped with a fixed time step.
+ * Each step reads the previous state of the whole field and writes a new one, so every chunk partition could be
+ * stepped independently of the others.
+ * <p>
+ * Producers hold the blocks next to their heating faces at their own heat, heat then spreads through the neighbouring
+ * conductive blocks and is lost through the faces that are not conductive.
+ * <p>
+ * Runs on the clients as well, so that the heat they display and check recipes against is the same as on the server.
+ */
+@RegisterSystem
+@Share(HeatNetwork.class)
+public class HeatNetworkSystem extends BaseComponentSystem implements HeatNetwork, UpdateSubscriberSystem {
+    private static final long STEP_LENGTH = 250;
+    private static final int MAX_STEPS_PER_UPDATE = 4;
+    // Part of the heat difference that flows through a conductive face per second
+    private static final float CONDUCTION_RATE = 0.2f;
+    // Part of the heat that is lost through a non-conductive face per second
+    private static final float LOSS_RATE = 0.05f;
+    // Blocks holding less heat than that are dropped from the field
+    private static final float MINIMUM_CONDUCTED_HEAT = 0.5f;
+    private static final Set<String> CONDUCTIVE_CATEGORIES = Sets.newHashSet("stone", "clay", "brick");
+
+    @In
+    private Time time;
+    @In
+    private WorldProvider worldProvider;
+    @In
+    private HeatThresholdRegistry heatThresholdRegistry;
+    @In
+    private HeatSnapshotManager heatSnapshotManager;
+
+    private long lastStepTime;
+
+    private Map<Vector3i, Map<Vector3i, Float>> conductedHeat = new HashMap<>();
+    // Heat conducted into each of the consumers, only for those that get any
+    private Map<EntityRef, Float> consumerConductedHeat = new HashMap<>();
+
+    private Map<EntityRef, List<Vector3i>> producerHeatedBlocks = new HashMap<>();
+    private Map<EntityRef, List<Vector3i>> consumerHeatSourceBlocks = new HashMap<>();
+    // Blocks occupied by producers and consumers, these do not conduct heat even if made of stone
+    private Set<Vector3i> heatEntityBlocks = new HashSet<>();
+
+    @Override
+    public float getConductedHeat(Vector3i position) {
+        Map<Vector3i, Float> chunkHeat = conductedHeat.get(ChunkMath.calcChunkPos(position));
+        if (chunkHeat == null) {
+            return 0;
+        }
+        Float heat = chunkHeat.get(position);
+        return heat != null ? heat : 0;
+    }
+
+    @Override
+    public float getConductedHeat(EntityRef consumer) {
+        Float heat = consumerConductedHeat.get(consumer);
+        return heat != null ? heat : 0;
+    }
+
+    @Override
+    public void update(float delta) {
+        long currentTime = time.getGameTimeInMs();
+        if (lastStepTime == 0 || currentTime < lastStepTime) {
+            lastStepTime = currentTime;
+            return;
+        }
+        if (currentTime < lastStepTime + STEP_LENGTH) {
+            return;
+        }
+
+        PerformanceMonitor.startActivity("Heat - heat network");
+        try {
+            boolean wasConducting = !conductedHeat.isEmpty();
+            int steps = 0;
+            while (lastStepTime + STEP_LENGTH <= currentTime && steps < MAX_STEPS_PER_UPDATE) {
+                lastStepTime += STEP_LENGTH;
+                step();
+                steps++;
+            }
+            // Do not try to catch up after a long pause
+            if (lastStepTime + STEP_LENGTH <= currentTime) {
+                lastStepTime = currentTime;
+            }
+            if (wasConducting || !conductedHeat.isEmpty()) {
+                updateConsumers();
+            }
+        } finally {
+            PerformanceMonitor.endActivity();
+        }
+    }
+
+    private void step() {
+        Map<Vector3i, Map<Vector3i, Float>> nextConductedHeat = new HashMap<>();
+        float stepSeconds = STEP_LENGTH / 1000f;
+
+        for (Map<Vector3i, Float> chunkHeat : conductedHeat.values()) {
+            for (Map.Entry<Vector3i, Float> blockHeat : chunkHeat.entrySet()) {
+                Vector3i position = blockHeat.getKey();
+                if (!isConductive(position)) {
+                    continue;
+                }
+
+                float heat = blockHeat.getValue();
+                float remainingHeat = heat;
+                for (Side side : Side.values()) {
+                    Vector3i neighbour = new Vector3i(position);
+                    neighbour.add(side.getVector3i());
+                    if (isConductive(neighbour)) {
+                        float flow = heat * CONDUCTION_RATE * stepSeconds;
+                        addHeat(nextConductedHeat, neighbour, flow);
+                        remainingHeat -= flow;
+                    } else {
+                        remainingHeat -= heat * LOSS_RATE * stepSeconds;
+                    }
+                }
+                addHeat(nextConductedHeat, position, remainingHeat);
+            }
+        }
+
+        // Producers keep the blocks they heat at their own heat
+        for (Map.Entry<EntityRef, List<Vector3i>> producerBlocks : producerHeatedBlocks.entrySet()) {
+            HeatProducerComponent producer = producerBlocks.getKey().getComponent(HeatProducerComponent.class);
+            if (producer == null) {
+                continue;
+            }
+            float heat = HeatUtils.calculateHeatForProducer(producer) - 20;
+            if (heat < MINIMUM_CONDUCTED_HEAT) {
+                continue;
+            }
+            for (Vector3i heatedBlock : producerBlocks.getValue()) {
+                if (isConductive(heatedBlock)) {
+                    setMinimumHeat(nextConductedHeat, heatedBlock, heat);
+                }
+            }
+        }
+
+        removeNegligibleHeat(nextConductedHeat);
+        conductedHeat = nextConductedHeat;
+    }
+
+    private void updateConsumers() {
+        Map<EntityRef, Float> previousConsumerHeat = consumerConductedHeat;
+        consumerConductedHeat = new HashMap<>();
+        for (Map.Entry<EntityRef, List<Vector3i>> consumerBlocks : consumerHeatSourceBlocks.entrySet()) {
+            float heat = 0;
+            for (Vector3i heatSourceBlock : consumerBlocks.getValue()) {
+                heat += getConductedHeat(heatSourceBlock);
+            }
+            if (heat > 0) {
+                consumerConductedHeat.put(consumerBlocks.getKey(), heat);
+            }
+        }
+
+        // Heat calculated with the previous conducted heat is no longer valid
+        heatSnapshotManager.discardSnapshot();
+
+        // Consumers that just stopped getting conducted heat have to be checked as well
+        for (EntityRef consumer : consumerConductedHeat.keySet()) {
+            heatThresholdRegistry.checkHeatThresholds(consumer);
+        }
+        for (EntityRef consumer : previousConsumerHeat.keySet()) {
+            if (!consumerConductedHeat.containsKey(consumer)) {
+                heatThresholdRegistry.checkHeatThresholds(consumer);
+            }
+        }
+    }
+
+    private boolean isConductive(Vector3i position) {
+        if (heatEntityBlocks.contains(position) || !worldProvider.isBlockRelevant(position)) {
+            return false;
+        }
+        Block block = worldProvider.getBlock(position);
+        for (String category : block.getBlockFamily().getCategories()) {
+            if (CONDUCTIVE_CATEGORIES.contains(category)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addHeat(Map<Vector3i, Map<Vector3i, Float>> field, Vector3i position, float heat) {
+        Map<Vector3i, Float> chunkHeat = getChunkHeat(field, position);
+        Float existing = chunkHeat.get(position);
+        chunkHeat.put(position, existing != null ? existing + heat : heat);
+    }
+
+    private void setMinimumHeat(Map<Vector3i, Map<Vector3i, Float>> field, Vector3i position, float heat) {
+        Map<Vector3i, Float> chunkHeat = getChunkHeat(field, position);
+        Float existing = chunkHeat.get(position);
+        if (existing == null || existing < heat) {
+            chunkHeat.put(position, heat);
+        }
+    }
+
+    private Map<Vector3i, Float> getChunkHeat(Map<Vector3i, Map<Vector3i, Float>> field, Vector3i position) {
+        Vector3i chunkPosition = ChunkMath.calcChunkPos(position);
+        Map<Vector3i, Float> chunkHeat = field.get(chunkPosition);
+        if (chunkHeat == null) {
+            chunkHeat = new HashMap<>();
+            field.put(chunkPosition, chunkHeat);
+        }
+        return chunkHeat;
+    }
+
+    private void removeNegligibleHeat(Map<Vector3i, Map<Vector3i, Float>> field) {
+        List<Vector3i> emptyChunks = new ArrayList<>();
+        for (Map.Entry<Vector3i, Map<Vector3i, Float>> chunkHeat : field.entrySet()) {
+            Iterator<Float> heatIterator = chunkHeat.getValue().values().iterator();
+            while (heatIterator.hasNext()) {
+                if (heatIterator.next() < MINIMUM_CONDUCTED_HEAT) {
+                    heatIterator.remove();
+                }
+            }
+            if (chunkHeat.getValue().isEmpty()) {
+                emptyChunks.add(chunkHeat.getKey());
+            }
+        }
+        for (Vector3i emptyChunk : emptyChunks) {
+            field.remove(emptyChunk);
+        }
+    }
+
+    private void addHeatEntityBlocks(EntityRef entity) {
+        for (Vector3i block : HeatUtils.getEntityBlocks(entity)) {
+            heatEntityBlocks.add(new Vector3i(block));
+        }
+    }
+
+    private void removeHeatEntityBlocks(EntityRef entity) {
+        for (Vector3i block : HeatUtils.getEntityBlocks(entity)) {
+            heatEntityBlocks.remove(block);
+        }
+    }
+
+    private boolean isPlacedInWorld(EntityRef entity) {
+        return entity.hasComponent(BlockComponent.class) || entity.hasComponent(BlockRegionComponent.class);
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerActivated(OnActivatedComponent event, EntityRef entity) {
+        if (isPlacedInWorld(entity)) {
+            addHeatEntityBlocks(entity);
+            producerHeatedBlocks.put(entity, new ArrayList<>(HeatUtils.getPotentialHeatedBlocksForProducer(entity).keySet()));
+        }
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (producerHeatedBlocks.remove(entity) != null) {
+            removeHeatEntityBlocks(entity);
+        }
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerActivated(OnActivatedComponent event, EntityRef entity) {
+        if (isPlacedInWorld(entity)) {
+            addHeatEntityBlocks(entity);
+            consumerHeatSourceBlocks.put(entity, new ArrayList<>(HeatUtils.getPotentialHeatSourceBlocksForConsumer(entity).keySet()));
+        }
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        consumerConductedHeat.remove(entity);
+        if (consumerHeatSourceBlocks.remove(entity) != null) {
+            removeHeatEntityBlocks(entity);
+        }
+    }
+}
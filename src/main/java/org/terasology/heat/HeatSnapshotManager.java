@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+/**
+ * Provides heat of entities, calculating it at most once per game time.
+ */
+public interface HeatSnapshotManager {
+    float getHeat(EntityRef entity);
+
+    /**
+     * Discards the heat calculated so far, has to be called whenever something the heat of entities depends on changes.
+     */
+    void discardSnapshot();
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.engine.Time;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.heat.component.HeatConsumerComponent;
+import org.terasology.heat.component.HeatProducerComponent;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RegisterSystem
+@Share(HeatSnapshotManager.class)
+public class HeatSnapshotManagerImpl extends BaseComponentSystem implements HeatSnapshotManager {
+    @In
+    private Time time;
+
+    private long snapshotTime = -1;
+    private Map<EntityRef, Float> heatSnapshot = new HashMap<>();
+
+    @Override
+    public float getHeat(EntityRef entity) {
+        long gameTime = time.getGameTimeInMs();
+        if (gameTime != snapshotTime) {
+            heatSnapshot.clear();
+            snapshotTime = gameTime;
+        }
+
+        Float heat = heatSnapshot.get(entity);
+        if (heat == null) {
+            heat = HeatUtils.calculateHeatForEntity(entity);
+            heatSnapshot.put(entity, heat);
+        }
+        return heat;
+    }
+
+    @Override
+    public void discardSnapshot() {
+        heatSnapshot.clear();
+    }
+
+    // Heat of consumers depends on the producers next to them, so any change discards the whole snapshot
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerChanged(OnChangedComponent event, EntityRef entity) {
+        discardSnapshot();
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerChanged(OnChangedComponent event, EntityRef entity) {
+        discardSnapshot();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.entitySystem.entity.EntityRef;
+
+import java.util.Collection;
+
+/**
+ * Keeps the temperatures that heated entities are interested in. The entity gets notified with WorkstationStateChanged
+ * only when its heat crosses one of them, instead of on every change of heat.
+ */
+public interface HeatThresholdRegistry {
+    /**
+     * Replaces the temperatures registered by the source for the entity.
+     *
+     * @param entity     Heated entity.
+     * @param source     Identifies the registering party, so multiple of them can register on the same entity.
+     * @param thresholds Temperatures to be notified about, empty to unregister.
+     */
+    void setHeatThresholds(EntityRef entity, String source, Collection<Float> thresholds);
+
+    boolean hasHeatThresholds(EntityRef entity);
+
+    /**
+     * Returns the nearest threshold of the entity that the heat crosses next, when rising or falling from the
+     * specified value.
+     *
+     * @return The threshold, or NaN if there is none in that direction.
+     */
+    float getNextHeatThreshold(EntityRef entity, float heat, boolean rising);
+
+    /**
+     * Sends WorkstationStateChanged to the entity, if its heat crossed any of its thresholds since the last check.
+     *
+     * @param entity
+     */
+    void checkHeatThresholds(EntityRef entity);
+}
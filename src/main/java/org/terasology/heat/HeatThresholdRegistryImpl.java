@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.heat;
+
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.entitySystem.event.ReceiveEvent;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.heat.component.HeatConsumerComponent;
+import org.terasology.heat.component.HeatProducerComponent;
+import org.terasology.heat.event.HeatThresholdsChanged;
+import org.terasology.registry.In;
+import org.terasology.registry.Share;
+import org.terasology.workstation.event.WorkstationStateChanged;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RegisterSystem
+@Share(HeatThresholdRegistry.class)
+public class HeatThresholdRegistryImpl extends BaseComponentSystem implements HeatThresholdRegistry {
+    @In
+    private HeatSnapshotManager heatSnapshotManager;
+
+    private Map<EntityRef, Map<String, float[]>> heatThresholds = new HashMap<>();
+    private Map<EntityRef, Float> lastCheckedHeat = new HashMap<>();
+
+    @Override
+    public void setHeatThresholds(EntityRef entity, String source, Collection<Float> thresholds) {
+        Map<String, float[]> entityThresholds = heatThresholds.get(entity);
+        if (thresholds.isEmpty()) {
+            if (entityThresholds != null) {
+                entityThresholds.remove(source);
+                if (entityThresholds.isEmpty()) {
+                    heatThresholds.remove(entity);
+                    lastCheckedHeat.remove(entity);
+                }
+            }
+            entity.send(new HeatThresholdsChanged());
+            return;
+        }
+
+        if (entityThresholds == null) {
+            entityThresholds = new HashMap<>();
+            heatThresholds.put(entity, entityThresholds);
+        }
+        float[] values = new float[thresholds.size()];
+        int index = 0;
+        for (Float threshold : thresholds) {
+            values[index++] = threshold;
+        }
+        float[] previousValues = entityThresholds.put(source, values);
+        if (!Arrays.equals(previousValues, values)) {
+            entity.send(new HeatThresholdsChanged());
+        }
+    }
+
+    @Override
+    public boolean hasHeatThresholds(EntityRef entity) {
+        return heatThresholds.containsKey(entity);
+    }
+
+    @Override
+    public float getNextHeatThreshold(EntityRef entity, float heat, boolean rising) {
+        Map<String, float[]> entityThresholds = heatThresholds.get(entity);
+        float result = Float.NaN;
+        if (entityThresholds != null) {
+            for (float[] values : entityThresholds.values()) {
+                for (float threshold : values) {
+                    // Crossing means getting to the other side of "heat < threshold"
+                    boolean ahead = rising ? threshold > heat : threshold <= heat;
+                    if (ahead && (Float.isNaN(result) || Math.abs(threshold - heat) < Math.abs(result - heat))) {
+                        result = threshold;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void checkHeatThresholds(EntityRef entity) {
+        Map<String, float[]> entityThresholds = heatThresholds.get(entity);
+        if (entityThresholds == null) {
+            return;
+        }
+
+        float heat = heatSnapshotManager.getHeat(entity);
+        Float previousHeat = lastCheckedHeat.put(entity, heat);
+        if (previousHeat == null || isHeatThresholdCrossed(entityThresholds, previousHeat, heat)) {
+            entity.send(new WorkstationStateChanged());
+        }
+    }
+
+    private boolean isHeatThresholdCrossed(Map<String, float[]> entityThresholds, float previousHeat, float heat) {
+        for (float[] values : entityThresholds.values()) {
+            for (float threshold : values) {
+                if ((previousHeat < threshold) != (heat < threshold)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        heatThresholds.remove(entity);
+        lastCheckedHeat.remove(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        heatThresholds.remove(entity);
+        lastCheckedHeat.remove(entity);
+    }
+}
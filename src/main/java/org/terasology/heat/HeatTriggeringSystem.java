@@ -19,7 +19,10 @@ import org.terasology.crafting.component.PortableWorkstationComponent;
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeRemoveComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterMode;
@@ -27,6 +30,7 @@ import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.heat.component.HeatConsumerComponent;
 import org.terasology.heat.component.HeatProducerComponent;
+import org.terasology.heat.event.HeatThresholdsChanged;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
 import org.terasology.monitoring.PerformanceMonitor;
@@ -36,9 +40,21 @@ import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.regions.BlockRegionComponent;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
+/**
+ * Removes fuel and residual heat that no longer has any meaningful impact, and notifies the workstations whenever their
+ * heat crosses one of the thresholds registered in HeatThresholdRegistry, or a producer starts or stops burning.
+ * Instead of scanning all the heated entities, each of them is scheduled for the next game time at which something is
+ * going to change for it. Entities that are neither burning fuel, nor have any heat left to remove, are not scheduled
+ * at all.
+ */
 @RegisterSystem(value = RegisterMode.AUTHORITY)
 public class HeatTriggeringSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
     private static final float REMOVE_FUEL_THRESHOLD = 21f;
@@ -51,119 +67,291 @@ public class HeatTriggeringSystem extends BaseComponentSystem implements UpdateS
     private EntityManager entityManager;
     @In
     private Time time;
+    @In
+    private HeatThresholdRegistry heatThresholdRegistry;
+    @In
+    private HeatAdjacencyIndex heatAdjacencyIndex;
+    @In
+    private HeatSnapshotManager heatSnapshotManager;
 
-    private long lastChecked;
+    private PriorityQueue<ScheduledHeatUpdate> heatUpdateQueue = new PriorityQueue<>();
+    private Map<EntityRef, Long> scheduledHeatUpdates = new HashMap<>();
+    private Set<EntityRef> burningProducers = new HashSet<>();
+
+    @Override
+    public void postBegin() {
+        for (EntityRef entity : entityManager.getEntitiesWith(HeatConsumerComponent.class)) {
+            scheduleHeatUpdate(entity);
+        }
+        for (EntityRef entity : entityManager.getEntitiesWith(HeatProducerComponent.class)) {
+            scheduleHeatUpdate(entity);
+        }
+    }
 
     @Override
     public void update(float delta) {
         long currentTime = time.getGameTimeInMs();
-        if (currentTime > lastChecked + TRIGGER_INTERVAL) {
-            PerformanceMonitor.startActivity("Heat - heat update");
-            try {
-                lastChecked = currentTime;
-
-                for (EntityRef entity : entityManager.getEntitiesWith(HeatConsumerComponent.class, BlockComponent.class)) {
-                    HeatConsumerComponent heatConsumer = entity.getComponent(HeatConsumerComponent.class);
-                    Iterator<HeatConsumerComponent.ResidualHeat> residualHeatIterator = heatConsumer.residualHeat.iterator();
-                    boolean changed = false;
-                    while (residualHeatIterator.hasNext()) {
-                        HeatConsumerComponent.ResidualHeat residualHeat = residualHeatIterator.next();
-                        if (HeatUtils.calculateResidualHeatValue(currentTime, residualHeat) < REMOVE_RESIDUAL_HEAT_THRESHOLD) {
-                            residualHeatIterator.remove();
-                            changed = true;
-                        } else {
-                            break;
-                        }
-                    }
-                    if (changed) {
-                        entity.saveComponent(heatConsumer);
-                    }
+        ScheduledHeatUpdate nextUpdate = heatUpdateQueue.peek();
+        if (nextUpdate == null || nextUpdate.time > currentTime) {
+            return;
+        }
 
-                    entity.send(new WorkstationStateChanged());
+        PerformanceMonitor.startActivity("Heat - heat update");
+        try {
+            while (nextUpdate != null && nextUpdate.time <= currentTime) {
+                heatUpdateQueue.poll();
+                Long scheduledTime = scheduledHeatUpdates.get(nextUpdate.entity);
+                // The entity might have been rescheduled or unscheduled since this update was queued
+                if (scheduledTime != null && scheduledTime == nextUpdate.time) {
+                    scheduledHeatUpdates.remove(nextUpdate.entity);
+                    if (nextUpdate.entity.exists()) {
+                        updateHeat(nextUpdate.entity, currentTime);
+                    }
                 }
+                nextUpdate = heatUpdateQueue.peek();
+            }
+        } finally {
+            PerformanceMonitor.endActivity();
+        }
+    }
 
-                for (EntityRef entity : entityManager.getEntitiesWith(HeatProducerComponent.class, BlockComponent.class)) {
-                    HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
-
-                    boolean changed = false;
-                    Iterator<HeatProducerComponent.FuelSourceConsume> fuelConsumedIterator = producer.fuelConsumed.iterator();
-                    while (fuelConsumedIterator.hasNext()) {
-                        HeatProducerComponent.FuelSourceConsume fuelSourceConsume = fuelConsumedIterator.next();
-                        // If the fuel no longer has any meaningful impact on the producer - remove it
-                        if (fuelSourceConsume.startTime + fuelSourceConsume.burnLength < currentTime
-                                && HeatUtils.solveHeatEquation(fuelSourceConsume.heatProvided, 20, producer.temperatureLossRate,
-                                currentTime - (fuelSourceConsume.startTime + fuelSourceConsume.burnLength)) < REMOVE_FUEL_THRESHOLD) {
-                            fuelConsumedIterator.remove();
-                            changed = true;
-                        } else {
-                            break;
-                        }
-                    }
-                    if (changed) {
-                        entity.saveComponent(producer);
-                    }
+    private void updateHeat(EntityRef entity, long currentTime) {
+        HeatConsumerComponent heatConsumer = entity.getComponent(HeatConsumerComponent.class);
+        if (heatConsumer != null && removeResidualHeat(heatConsumer, currentTime)) {
+            entity.saveComponent(heatConsumer);
+            entity.send(new WorkstationStateChanged());
+        }
 
-                    entity.send(new WorkstationStateChanged());
-                }
-            } finally {
-                PerformanceMonitor.endActivity();
+        HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
+        if (producer != null) {
+            boolean changed = removeBurntOutFuel(producer, currentTime);
+            if (changed) {
+                HeatUtils.resetHeatAnchor(producer);
+                entity.saveComponent(producer);
             }
 
+            boolean burningChanged = updateBurning(entity, producer, currentTime);
+            if (changed || burningChanged) {
+                entity.send(new WorkstationStateChanged());
+            } else {
+                heatThresholdRegistry.checkHeatThresholds(entity);
+            }
+            if (changed || !producer.fuelConsumed.isEmpty()) {
+                // Heat of the consumers rises and falls together with the heat of this producer
+                notifyHeatedConsumers(entity);
+            }
+        }
 
+        scheduleHeatUpdate(entity);
+    }
 
-            // TODO: TEST for PortableWorkstations.
+    private boolean removeResidualHeat(HeatConsumerComponent heatConsumer, long currentTime) {
+        if (heatConsumer.residualHeatValue > 0
+                && HeatUtils.calculateResidualHeatValue(currentTime, heatConsumer) < REMOVE_RESIDUAL_HEAT_THRESHOLD) {
+            heatConsumer.residualHeatValue = 0;
+            heatConsumer.residualHeatTime = currentTime;
+            return true;
+        }
+        return false;
+    }
 
-            PerformanceMonitor.startActivity("Heat - heat update2");
-            try {
-                lastChecked = currentTime;
+    private boolean removeBurntOutFuel(HeatProducerComponent producer, long currentTime) {
+        boolean changed = false;
+        Iterator<HeatProducerComponent.FuelSourceConsume> fuelConsumedIterator = producer.fuelConsumed.iterator();
+        while (fuelConsumedIterator.hasNext()) {
+            HeatProducerComponent.FuelSourceConsume fuelSourceConsume = fuelConsumedIterator.next();
+            // If the fuel no longer has any meaningful impact on the producer - remove it
+            if (fuelSourceConsume.startTime + fuelSourceConsume.burnLength < currentTime
+                    && HeatUtils.solveHeatEquation(fuelSourceConsume.heatProvided, 20, producer.temperatureLossRate,
+                    currentTime - (fuelSourceConsume.startTime + fuelSourceConsume.burnLength)) < REMOVE_FUEL_THRESHOLD) {
+                fuelConsumedIterator.remove();
+                changed = true;
+            } else {
+                break;
+            }
+        }
+        return changed;
+    }
 
-                for (EntityRef entity : entityManager.getEntitiesWith(HeatConsumerComponent.class, PortableWorkstationComponent.class)) {
-                    HeatConsumerComponent heatConsumer = entity.getComponent(HeatConsumerComponent.class);
-                    Iterator<HeatConsumerComponent.ResidualHeat> residualHeatIterator = heatConsumer.residualHeat.iterator();
-                    boolean changed = false;
-                    while (residualHeatIterator.hasNext()) {
-                        HeatConsumerComponent.ResidualHeat residualHeat = residualHeatIterator.next();
-                        if (HeatUtils.calculateResidualHeatValue(currentTime, residualHeat) < REMOVE_RESIDUAL_HEAT_THRESHOLD) {
-                            residualHeatIterator.remove();
-                            changed = true;
-                        } else {
-                            break;
-                        }
-                    }
-                    if (changed) {
-                        entity.saveComponent(heatConsumer);
-                    }
+    private boolean isBurning(HeatProducerComponent producer, long currentTime) {
+        // Fuel is appended as it starts burning, so the last one is the one to burn out last
+        List<HeatProducerComponent.FuelSourceConsume> fuelConsumed = producer.fuelConsumed;
+        if (fuelConsumed.isEmpty()) {
+            return false;
+        }
+        HeatProducerComponent.FuelSourceConsume lastConsumed = fuelConsumed.get(fuelConsumed.size() - 1);
+        return lastConsumed.startTime + lastConsumed.burnLength > currentTime;
+    }
 
-                    entity.send(new WorkstationStateChanged());
-                }
+    private boolean updateBurning(EntityRef entity, HeatProducerComponent producer, long currentTime) {
+        if (isBurning(producer, currentTime)) {
+            return burningProducers.add(entity);
+        } else {
+            return burningProducers.remove(entity);
+        }
+    }
 
-                for (EntityRef entity : entityManager.getEntitiesWith(HeatProducerComponent.class, PortableWorkstationComponent.class)) {
-                    HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
-
-                    boolean changed = false;
-                    Iterator<HeatProducerComponent.FuelSourceConsume> fuelConsumedIterator = producer.fuelConsumed.iterator();
-                    while (fuelConsumedIterator.hasNext()) {
-                        HeatProducerComponent.FuelSourceConsume fuelSourceConsume = fuelConsumedIterator.next();
-                        // If the fuel no longer has any meaningful impact on the producer - remove it
-                        if (fuelSourceConsume.startTime + fuelSourceConsume.burnLength < currentTime
-                                && HeatUtils.solveHeatEquation(fuelSourceConsume.heatProvided, 20, producer.temperatureLossRate,
-                                currentTime - (fuelSourceConsume.startTime + fuelSourceConsume.burnLength)) < REMOVE_FUEL_THRESHOLD) {
-                            fuelConsumedIterator.remove();
-                            changed = true;
-                        } else {
-                            break;
-                        }
-                    }
-                    if (changed) {
-                        entity.saveComponent(producer);
-                    }
+    private void notifyHeatedConsumers(EntityRef producerEntity) {
+        for (EntityRef consumer : heatAdjacencyIndex.getHeatedConsumers(producerEntity)) {
+            heatThresholdRegistry.checkHeatThresholds(consumer);
+        }
+    }
 
-                    entity.send(new WorkstationStateChanged());
+    /**
+     * Calculates when the heat of the producer crosses the next threshold registered on it or on one of the consumers it
+     * heats, or when the fuel driving its heat changes, whichever comes first. The heat of a consumer is assumed to
+     * change only with this producer, the other producers heating it take care of their own part.
+     */
+    private long getNextHeatChangeTime(EntityRef entity, HeatProducerComponent producer, long currentTime) {
+        // Heat moves towards the fuel burning now, or towards the ambient heat, until the next fuel starts or ends
+        float appliedHeat = 20;
+        float transferRate = producer.temperatureLossRate;
+        boolean driven = false;
+        long result = Long.MAX_VALUE;
+        for (HeatProducerComponent.FuelSourceConsume fuelSourceConsume : producer.fuelConsumed) {
+            long fuelEndTime = fuelSourceConsume.startTime + fuelSourceConsume.burnLength;
+            if (fuelSourceConsume.startTime > currentTime) {
+                result = Math.min(result, fuelSourceConsume.startTime);
+            } else if (fuelEndTime > currentTime) {
+                if (!driven) {
+                    appliedHeat = fuelSourceConsume.heatProvided;
+                    transferRate = producer.temperatureAbsorptionRate;
+                    driven = true;
                 }
-            } finally {
-                PerformanceMonitor.endActivity();
+                result = Math.min(result, fuelEndTime);
             }
         }
+
+        float heat = HeatUtils.calculateHeatForProducer(producer);
+        boolean rising = appliedHeat > heat;
+
+        float threshold = heatThresholdRegistry.getNextHeatThreshold(entity, heat, rising);
+        if (!Float.isNaN(threshold)) {
+            result = Math.min(result, getHeatReachedTime(producer, heat, appliedHeat, transferRate, threshold, currentTime));
+        }
+
+        for (EntityRef consumer : heatAdjacencyIndex.getHeatedConsumers(entity)) {
+            HeatConsumerComponent heatConsumer = consumer.getComponent(HeatConsumerComponent.class);
+            if (heatConsumer == null || heatConsumer.heatConsumptionEfficiency <= 0 || !heatThresholdRegistry.hasHeatThresholds(consumer)) {
+                continue;
+            }
+            float consumerHeat = heatSnapshotManager.getHeat(consumer);
+            float consumerThreshold = heatThresholdRegistry.getNextHeatThreshold(consumer, consumerHeat, rising);
+            if (!Float.isNaN(consumerThreshold)) {
+                // Heat of this producer at which the consumer gets to its threshold
+                float producerThreshold = heat + (consumerThreshold - consumerHeat) / heatConsumer.heatConsumptionEfficiency;
+                result = Math.min(result, getHeatReachedTime(producer, heat, appliedHeat, transferRate, producerThreshold, currentTime));
+            }
+        }
+
+        return result;
+    }
+
+    private long getHeatReachedTime(HeatProducerComponent producer, float heat, float appliedHeat, float transferRate,
+                                    float targetHeat, long currentTime) {
+        if (targetHeat > producer.maximumTemperature) {
+            return Long.MAX_VALUE;
+        }
+        long duration = HeatUtils.solveHeatEquationDuration(heat, appliedHeat, transferRate, targetHeat);
+        return duration == Long.MAX_VALUE ? Long.MAX_VALUE : currentTime + duration;
+    }
+
+    private long getNextHeatUpdateTime(EntityRef entity, long currentTime) {
+        long result = Long.MAX_VALUE;
+
+        HeatConsumerComponent heatConsumer = entity.getComponent(HeatConsumerComponent.class);
+        if (heatConsumer != null && heatConsumer.residualHeatValue > 0) {
+            result = HeatUtils.calculateResidualHeatExpireTime(heatConsumer, REMOVE_RESIDUAL_HEAT_THRESHOLD);
+        }
+
+        HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
+        if (producer != null && !producer.fuelConsumed.isEmpty()) {
+            // Burning and cooling producers are only woken up when a threshold is crossed, or the burning fuel changes
+            result = Math.min(result, getNextHeatChangeTime(entity, producer, currentTime));
+
+            HeatProducerComponent.FuelSourceConsume firstConsumed = producer.fuelConsumed.get(0);
+            long burnOutTime = HeatUtils.solveHeatEquationDuration(firstConsumed.heatProvided, 20, producer.temperatureLossRate, REMOVE_FUEL_THRESHOLD);
+            if (burnOutTime != Long.MAX_VALUE) {
+                result = Math.min(result, firstConsumed.startTime + firstConsumed.burnLength + burnOutTime);
+            }
+        }
+
+        if (result == Long.MAX_VALUE) {
+            return result;
+        }
+        // Do not trigger more often than the interval, also guards against rounding errors when removing
+        return Math.max(result, currentTime + TRIGGER_INTERVAL);
+    }
+
+    private void scheduleHeatUpdate(EntityRef entity) {
+        if (!entity.hasComponent(BlockComponent.class) && !entity.hasComponent(PortableWorkstationComponent.class)) {
+            return;
+        }
+
+        long updateTime = getNextHeatUpdateTime(entity, time.getGameTimeInMs());
+        if (updateTime == Long.MAX_VALUE) {
+            return;
+        }
+
+        // An earlier update does no harm, it will just schedule the following one
+        Long scheduledTime = scheduledHeatUpdates.get(entity);
+        if (scheduledTime == null || updateTime < scheduledTime) {
+            scheduledHeatUpdates.put(entity, updateTime);
+            heatUpdateQueue.add(new ScheduledHeatUpdate(entity, updateTime));
+        }
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerActivated(OnActivatedComponent event, EntityRef entity) {
+        HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
+        // Producers loaded from saves made before the burn fields existed only have the fuel history
+        if (HeatUtils.updateBurnSnapshot(producer)) {
+            entity.saveComponent(producer);
+        }
+        updateBurning(entity, producer, time.getGameTimeInMs());
+        scheduleHeatUpdate(entity);
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerChanged(OnChangedComponent event, EntityRef entity) {
+        HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
+        if (updateBurning(entity, producer, time.getGameTimeInMs())) {
+            // Producers without thresholds would otherwise not be told that fuel started burning
+            entity.send(new WorkstationStateChanged());
+        }
+        scheduleHeatUpdate(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerActivated(OnActivatedComponent event, EntityRef entity) {
+        scheduleHeatUpdate(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerChanged(OnChangedComponent event, EntityRef entity) {
+        scheduleHeatUpdate(entity);
+    }
+
+    @ReceiveEvent
+    public void heatThresholdsChanged(HeatThresholdsChanged event, EntityRef entity) {
+        // The next crossing might now come sooner, both for the entity and for the producers heating it
+        scheduleHeatUpdate(entity);
+        if (entity.hasComponent(HeatConsumerComponent.class)) {
+            for (EntityRef producer : heatAdjacencyIndex.getHeatSources(entity)) {
+                scheduleHeatUpdate(producer);
+            }
+        }
+    }
+
+    @ReceiveEvent(components = {HeatProducerComponent.class})
+    public void producerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        scheduledHeatUpdates.remove(entity);
+        burningProducers.remove(entity);
+    }
+
+    @ReceiveEvent(components = {HeatConsumerComponent.class})
+    public void consumerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        scheduledHeatUpdates.remove(entity);
     }
 
     /**
@@ -193,13 +381,25 @@ public class HeatTriggeringSystem extends BaseComponentSystem implements UpdateS
             EntityRef potentialConsumer = blockEntityRegistry.getEntityAt(heatedBlock.getKey());
             HeatConsumerComponent consumer = potentialConsumer.getComponent(HeatConsumerComponent.class);
             if (consumer != null && consumer.heatDirections.contains(heatedBlock.getValue().reverse())) {
-                HeatConsumerComponent.ResidualHeat residualHeat = new HeatConsumerComponent.ResidualHeat();
-                residualHeat.time = gameTime;
-                residualHeat.baseHeat = heat;
-                consumer.residualHeat.add(residualHeat);
+                HeatUtils.addResidualHeat(consumer, gameTime, heat);
 
                 potentialConsumer.saveComponent(consumer);
             }
         }
     }
+
+    private static final class ScheduledHeatUpdate implements Comparable<ScheduledHeatUpdate> {
+        private final EntityRef entity;
+        private final long time;
+
+        private ScheduledHeatUpdate(EntityRef entity, long time) {
+            this.entity = entity;
+            this.time = time;
+        }
+
+        @Override
+        public int compareTo(ScheduledHeatUpdate other) {
+            return Long.compare(time, other.time);
+        }
+    }
 }
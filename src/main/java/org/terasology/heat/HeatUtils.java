@@ -22,13 +22,14 @@ import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.math.Region3i;
 import org.terasology.math.Side;
 import org.terasology.math.geom.Vector3i;
+import org.terasology.network.NetworkSystem;
 import org.terasology.registry.CoreRegistry;
-import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.block.BlockComponent;
 import org.terasology.world.block.regions.BlockRegionComponent;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public final class HeatUtils {
@@ -41,26 +42,129 @@ public final class HeatUtils {
     public static float calculateHeatForProducer(HeatProducerComponent producer) {
         long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
 
-        return Math.min(producer.maximumTemperature, calculateHeatForProducerAtTime(producer, gameTime));
+        if (CoreRegistry.get(NetworkSystem.class).getMode().isAuthority()) {
+            return Math.min(producer.maximumTemperature, calculateHeatForProducerAtTime(producer, gameTime));
+        } else {
+            return Math.min(producer.maximumTemperature, calculateHeatForProducerFromBurn(producer, gameTime));
+        }
+    }
+
+    /**
+     * Starts burning the fuel in the producer. Has to be called on the authority, the caller is responsible for saving
+     * the component.
+     */
+    public static void addFuel(HeatProducerComponent producer, long startTime, float heatProvided, long burnLength) {
+        HeatProducerComponent.FuelSourceConsume fuelSource = new HeatProducerComponent.FuelSourceConsume();
+        fuelSource.startTime = startTime;
+        fuelSource.burnLength = burnLength;
+        fuelSource.heatProvided = heatProvided;
+        producer.fuelConsumed.add(fuelSource);
+
+        updateBurnSnapshot(producer);
+    }
+
+    /**
+     * Fills the replicated burn fields from the last fuel in the history. Has to be called on the authority, the caller
+     * is responsible for saving the component.
+     *
+     * @return If any of the fields changed.
+     */
+    public static boolean updateBurnSnapshot(HeatProducerComponent producer) {
+        List<HeatProducerComponent.FuelSourceConsume> fuelConsumed = producer.fuelConsumed;
+        if (fuelConsumed.isEmpty()) {
+            return false;
+        }
+        HeatProducerComponent.FuelSourceConsume lastConsumed = fuelConsumed.get(fuelConsumed.size() - 1);
+        // The fuel starting at the time itself is not accounted for in the heat at that time
+        float burnStartHeat = Math.min(producer.maximumTemperature, calculateHeatForProducerAtTime(producer, lastConsumed.startTime));
+        long burnEndTime = lastConsumed.startTime + lastConsumed.burnLength;
+        if (producer.burnStartHeat == burnStartHeat && producer.burnStartTime == lastConsumed.startTime
+                && producer.burnEndTime == burnEndTime && producer.burnHeatProvided == lastConsumed.heatProvided) {
+            return false;
+        }
+        producer.burnStartHeat = burnStartHeat;
+        producer.burnStartTime = lastConsumed.startTime;
+        producer.burnEndTime = burnEndTime;
+        producer.burnHeatProvided = lastConsumed.heatProvided;
+        return true;
+    }
+
+    /**
+     * Calculates the part of the last added fuel that is still left to burn.
+     */
+    public static float calculateRemainingBurn(HeatProducerComponent producer) {
+        long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
+        if (gameTime > producer.burnEndTime || producer.burnEndTime == producer.burnStartTime) {
+            return 0f;
+        }
+        return 1f - (1f * (gameTime - producer.burnStartTime) / (producer.burnEndTime - producer.burnStartTime));
     }
 
     public static float solveHeatEquation(float startingHeat, float appliedHeat, float heatTransferEfficiency, long duration) {
-        return startingHeat + (appliedHeat - startingHeat) * (1 - (float) Math.pow(Math.E, -duration * heatTransferEfficiency / HEAT_MAGIC_VALUE));
+        return startingHeat + (appliedHeat - startingHeat) * (1 - (float) Math.exp(-duration * heatTransferEfficiency / HEAT_MAGIC_VALUE));
+    }
+
+    /**
+     * Calculates how long it takes for heat to get from startingHeat to targetHeat, when moving towards appliedHeat.
+     *
+     * @return Duration in milliseconds, 0 if the heat is already at or past the target, Long.MAX_VALUE if the target is
+     * never reached.
+     */
+    public static long solveHeatEquationDuration(float startingHeat, float appliedHeat, float heatTransferEfficiency, float targetHeat) {
+        float startingDifference = startingHeat - appliedHeat;
+        float targetDifference = targetHeat - appliedHeat;
+        if (targetDifference == 0 || Math.signum(startingDifference) != Math.signum(targetDifference)) {
+            return startingHeat == targetHeat ? 0 : Long.MAX_VALUE;
+        }
+        if (Math.abs(startingDifference) <= Math.abs(targetDifference)) {
+            return 0;
+        }
+        if (heatTransferEfficiency <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) Math.ceil(HEAT_MAGIC_VALUE / heatTransferEfficiency * Math.log(startingDifference / targetDifference));
     }
 
     private static float calculateHeatForProducerAtTime(HeatProducerComponent producer, long time) {
-        float heat = 20;
-        long lastCalculated = 0;
-        for (HeatProducerComponent.FuelSourceConsume fuelSourceConsume : producer.fuelConsumed) {
+        List<HeatProducerComponent.FuelSourceConsume> fuelConsumed = producer.fuelConsumed;
+
+        float heat;
+        long lastCalculated;
+        int index;
+        boolean advanceAnchor;
+        if (time >= producer.heatAnchorTime) {
+            heat = producer.heatAnchor;
+            lastCalculated = producer.heatAnchorTime;
+            index = getFirstFuelSourceStartedAtOrAfter(fuelConsumed, lastCalculated);
+            advanceAnchor = true;
+        } else {
+            // Asked about a time before the checkpoint - replay the whole history, without touching the checkpoint
+            heat = 20;
+            lastCalculated = 0;
+            index = 0;
+            advanceAnchor = false;
+        }
+
+        int fuelCount = fuelConsumed.size();
+        for (; index < fuelCount; index++) {
+            HeatProducerComponent.FuelSourceConsume fuelSourceConsume = fuelConsumed.get(index);
             if (fuelSourceConsume.startTime < time) {
                 if (lastCalculated < fuelSourceConsume.startTime) {
                     heat = solveHeatEquation(heat, 20, producer.temperatureLossRate, fuelSourceConsume.startTime - lastCalculated);
                     lastCalculated = fuelSourceConsume.startTime;
                 }
-                long heatEndTime = Math.min(fuelSourceConsume.startTime + fuelSourceConsume.burnLength, time);
+                long fuelEndTime = fuelSourceConsume.startTime + fuelSourceConsume.burnLength;
+                long heatEndTime = Math.min(fuelEndTime, time);
                 heat = Math.min(producer.maximumTemperature,
                         solveHeatEquation(heat, fuelSourceConsume.heatProvided, producer.temperatureAbsorptionRate, heatEndTime - lastCalculated));
                 lastCalculated = heatEndTime;
+
+                // Move the checkpoint past this fuel, if it has burnt out and the next one does not overlap it
+                if (advanceAnchor && heatEndTime == fuelEndTime
+                        && (index + 1 == fuelCount || fuelConsumed.get(index + 1).startTime >= fuelEndTime)) {
+                    producer.heatAnchorTime = fuelEndTime;
+                    producer.heatAnchor = heat;
+                }
             } else {
                 break;
             }
@@ -73,43 +177,99 @@ public final class HeatUtils {
         return heat;
     }
 
-    public static float calculateHeatForEntity(EntityRef entity, BlockEntityRegistry blockEntityRegistry) {
+    private static float calculateHeatForProducerFromBurn(HeatProducerComponent producer, long time) {
+        // Same as replaying the fuel history, given that the previous fuel burnt out before the last one was added
+        float heat = producer.burnStartHeat;
+        long lastCalculated = producer.burnStartTime;
+        if (producer.burnStartTime < time) {
+            long heatEndTime = Math.min(producer.burnEndTime, time);
+            heat = Math.min(producer.maximumTemperature,
+                    solveHeatEquation(heat, producer.burnHeatProvided, producer.temperatureAbsorptionRate, heatEndTime - lastCalculated));
+            lastCalculated = heatEndTime;
+        }
+
+        if (lastCalculated < time) {
+            heat = solveHeatEquation(heat, 20, producer.temperatureLossRate, time - lastCalculated);
+        }
+
+        return heat;
+    }
+
+    private static int getFirstFuelSourceStartedAtOrAfter(List<HeatProducerComponent.FuelSourceConsume> fuelConsumed, long time) {
+        // Fuel is always appended in order of start time, and only the last few entries are past the checkpoint
+        int index = fuelConsumed.size();
+        while (index > 0 && fuelConsumed.get(index - 1).startTime >= time) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Discards the checkpoint of the heat curve, so that the next calculation replays the fuel history. Has to be called
+     * whenever fuel is removed from the history.
+     *
+     * @param producer
+     */
+    public static void resetHeatAnchor(HeatProducerComponent producer) {
+        producer.heatAnchorTime = 0;
+        producer.heatAnchor = 20;
+    }
+
+    public static float calculateHeatForEntity(EntityRef entity) {
         HeatProducerComponent producer = entity.getComponent(HeatProducerComponent.class);
         HeatConsumerComponent consumer = entity.getComponent(HeatConsumerComponent.class);
         if (producer != null) {
             return calculateHeatForProducer(producer);
         } else if (consumer != null) {
-            return calculateHeatForConsumer(entity, blockEntityRegistry, consumer);
+            return calculateHeatForConsumer(entity, consumer);
         } else {
             return 20;
         }
     }
 
-    private static float calculateHeatForConsumer(EntityRef entity, BlockEntityRegistry blockEntityRegistry, HeatConsumerComponent heatConsumer) {
+    private static float calculateHeatForConsumer(EntityRef entity, HeatConsumerComponent heatConsumer) {
         float result = 20;
 
-        for (Map.Entry<Vector3i, Side> heaterBlock : getPotentialHeatSourceBlocksForConsumer(entity).entrySet()) {
-            EntityRef potentialHeatProducer = blockEntityRegistry.getEntityAt(heaterBlock.getKey());
-            HeatProducerComponent producer = potentialHeatProducer.getComponent(HeatProducerComponent.class);
-
-            if (producer != null && producer.heatDirections.contains(heaterBlock.getValue().reverse())) {
+        for (EntityRef heatSource : CoreRegistry.get(HeatAdjacencyIndex.class).getHeatSources(entity)) {
+            HeatProducerComponent producer = heatSource.getComponent(HeatProducerComponent.class);
+            if (producer != null) {
                 result += calculateHeatForProducer(producer);
             }
         }
 
         long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
 
-        for (HeatConsumerComponent.ResidualHeat residualHeat : heatConsumer.residualHeat) {
-            double heat = calculateResidualHeatValue(gameTime, residualHeat);
-            result += heat;
+        result += calculateResidualHeatValue(gameTime, heatConsumer);
+
+        HeatNetwork heatNetwork = CoreRegistry.get(HeatNetwork.class);
+        if (heatNetwork != null) {
+            result += heatNetwork.getConductedHeat(entity);
         }
 
         return result * heatConsumer.heatConsumptionEfficiency;
     }
 
-    public static double calculateResidualHeatValue(long gameTime, HeatConsumerComponent.ResidualHeat residualHeat) {
-        float timeSinceHeatWasEstablished = (gameTime - residualHeat.time) / 1000f;
-        return residualHeat.baseHeat * Math.pow(Math.E, -1 * timeSinceHeatWasEstablished);
+    public static double calculateResidualHeatValue(long gameTime, HeatConsumerComponent heatConsumer) {
+        float timeSinceHeatWasEstablished = (gameTime - heatConsumer.residualHeatTime) / 1000f;
+        return heatConsumer.residualHeatValue * Math.exp(-1 * timeSinceHeatWasEstablished);
+    }
+
+    /**
+     * Adds residual heat to the consumer, rebasing the heat it already has to the specified time.
+     */
+    public static void addResidualHeat(HeatConsumerComponent heatConsumer, long gameTime, float heat) {
+        heatConsumer.residualHeatValue = (float) calculateResidualHeatValue(gameTime, heatConsumer) + heat;
+        heatConsumer.residualHeatTime = gameTime;
+    }
+
+    /**
+     * Calculates the game time at which the residual heat drops below the specified threshold.
+     */
+    public static long calculateResidualHeatExpireTime(HeatConsumerComponent heatConsumer, float threshold) {
+        if (heatConsumer.residualHeatValue < threshold) {
+            return heatConsumer.residualHeatTime;
+        }
+        return heatConsumer.residualHeatTime + (long) Math.ceil(1000 * Math.log(heatConsumer.residualHeatValue / threshold));
     }
 
     public static Region3i getEntityBlocks(EntityRef entityRef) {
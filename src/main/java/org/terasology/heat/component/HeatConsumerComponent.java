@@ -15,14 +15,11 @@
  */
 package org.terasology.heat.component;
 
-import com.google.common.collect.Lists;
 import org.terasology.entitySystem.Component;
 import org.terasology.math.Side;
 import org.terasology.network.Replicate;
-import org.terasology.reflection.MappedContainer;
 import org.terasology.world.block.ForceBlockActive;
 
-import java.util.List;
 import java.util.Set;
 
 @ForceBlockActive
@@ -31,14 +28,10 @@ public class HeatConsumerComponent implements Component {
     public Set<Side> heatDirections;
     @Replicate
     public float heatConsumptionEfficiency;
+    // All the residual heat decays at the same rate, so it is kept as a single value established at residualHeatTime.
+    // Named differently from the old list of residual heats, so that the list in existing saves is just ignored.
     @Replicate
-    public List<ResidualHeat> residualHeat = Lists.newArrayList();
-
-    @MappedContainer
-    public static class ResidualHeat {
-        @Replicate
-        public long time;
-        @Replicate
-        public float baseHeat;
-    }
+    public float residualHeatValue;
+    @Replicate
+    public long residualHeatTime;
 }
@@ -28,7 +28,7 @@ import java.util.Set;
 
 @ForceBlockActive
 public class HeatProducerComponent implements Component {
-    @Replicate
+    // The fuel history is kept on the authority only, clients calculate heat from the burn fields below
     public List<FuelSourceConsume> fuelConsumed = Lists.newArrayList();
     @Replicate
     public float temperatureAbsorptionRate;
@@ -39,13 +39,24 @@ public class HeatProducerComponent implements Component {
     @Replicate
     public Set<Side> heatDirections = Sets.newHashSet();
 
+    // Heat curve since the last fuel was added - heat at the start of the burn and the fuel that is burning
+    @Replicate
+    public float burnStartHeat = 20;
+    @Replicate
+    public long burnStartTime;
+    @Replicate
+    public long burnEndTime;
+    @Replicate
+    public float burnHeatProvided;
+
+    // Checkpoint of the heat curve - all the fuel started before heatAnchorTime is already accounted for in heatAnchor
+    public transient long heatAnchorTime;
+    public transient float heatAnchor = 20;
+
     @MappedContainer
     public static class FuelSourceConsume {
-        @Replicate
         public long startTime;
-        @Replicate
         public float heatProvided;
-        @Replicate
         public long burnLength;
     }
 }
@@ -20,6 +20,7 @@ import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.heat.HeatUtils;
 import org.terasology.heat.component.HeatFuelComponent;
 import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.logic.inventory.InventoryManager;
@@ -71,11 +72,7 @@ public class HeatFuelingProcessPartCommonSystem extends BaseComponentSystem {
 
         if (inventoryManager.removeItem(event.getWorkstation(), event.getInstigator(), item, true, 1) != null) {
             HeatProducerComponent producer = event.getWorkstation().getComponent(HeatProducerComponent.class);
-            HeatProducerComponent.FuelSourceConsume fuelSource = new HeatProducerComponent.FuelSourceConsume();
-            fuelSource.startTime = startTime;
-            fuelSource.burnLength = fuel.consumeTime;
-            fuelSource.heatProvided = fuel.heatProvided;
-            producer.fuelConsumed.add(fuelSource);
+            HeatUtils.addFuel(producer, startTime, fuel.heatProvided, fuel.consumeTime);
             event.getWorkstation().saveComponent(producer);
         }
     }
@@ -15,18 +15,21 @@
  */
 package org.terasology.heat.processPart;
 
-import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.crafting.system.ResultDescriptorCache;
+import org.terasology.crafting.system.recipe.render.result.ResultDescriptor;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
-import org.terasology.entitySystem.prefab.Prefab;
-import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
-import org.terasology.heat.HeatUtils;
+import org.terasology.heat.HeatSnapshotManager;
+import org.terasology.heat.HeatThresholdRegistry;
+import org.terasology.heat.component.HeatConsumerComponent;
 import org.terasology.heat.component.HeatProcessedComponent;
+import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.logic.inventory.InventoryUtils;
-import org.terasology.logic.inventory.ItemComponent;
+import org.terasology.logic.inventory.events.InventorySlotChangedEvent;
 import org.terasology.registry.In;
 import org.terasology.workstation.component.OutputTypeComponent;
 import org.terasology.workstation.component.SpecificInputSlotComponent;
@@ -37,23 +40,22 @@ import org.terasology.workstation.processPart.ProcessEntityGetDurationEvent;
 import org.terasology.workstation.processPart.ProcessEntityIsInvalidToStartEvent;
 import org.terasology.workstation.processPart.ProcessEntityStartExecutionEvent;
 import org.terasology.workstation.processPart.inventory.ProcessEntityIsInvalidForInventoryItemEvent;
-import org.terasology.world.BlockEntityRegistry;
-import org.terasology.world.block.BlockManager;
-import org.terasology.world.block.family.BlockFamily;
-import org.terasology.world.block.items.BlockItemFactory;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @RegisterSystem
 public class HeatProcessingProcessPartCommonSystem extends BaseComponentSystem {
+    private static final String HEAT_THRESHOLD_SOURCE = "WoodAndStone:HeatProcessing";
+
     @In
     InventoryManager inventoryManager;
     @In
-    EntityManager entityManager;
-    @In
-    BlockManager blockManager;
+    ResultDescriptorCache resultDescriptorCache;
     @In
-    PrefabManager prefabManager;
+    HeatThresholdRegistry heatThresholdRegistry;
     @In
-    BlockEntityRegistry blockEntityRegistry;
+    HeatSnapshotManager heatSnapshotManager;
 
     ///// Processing
 
@@ -69,7 +71,7 @@ public class HeatProcessingProcessPartCommonSystem extends BaseComponentSystem {
                 if (processed != null) {
                     float heatRequired = processed.heatRequired;
                     if (heat == null) {
-                        heat = HeatUtils.calculateHeatForEntity(event.getWorkstation(), blockEntityRegistry);
+                        heat = heatSnapshotManager.getHeat(event.getWorkstation());
                     }
                     if (heatRequired <= heat) {
                         final String result = processed.blockResult != null ? processed.blockResult : processed.itemResult;
@@ -128,42 +130,52 @@ public class HeatProcessingProcessPartCommonSystem extends BaseComponentSystem {
         }
     }
 
+    ///// Heat thresholds
+
+    @ReceiveEvent(components = {WorkstationInventoryComponent.class})
+    public void workstationActivated(OnActivatedComponent event, EntityRef workstation) {
+        if (isHeated(workstation)) {
+            registerHeatThresholds(workstation);
+        }
+    }
+
+    @ReceiveEvent(components = {WorkstationInventoryComponent.class})
+    public void inputChanged(InventorySlotChangedEvent event, EntityRef workstation) {
+        if (isHeated(workstation) && WorkstationInventoryUtils.getAssignedSlots(workstation, "INPUT").contains(event.getSlot())) {
+            registerHeatThresholds(workstation);
+        }
+    }
+
+    private boolean isHeated(EntityRef workstation) {
+        return workstation.hasComponent(HeatConsumerComponent.class) || workstation.hasComponent(HeatProducerComponent.class);
+    }
+
+    private void registerHeatThresholds(EntityRef workstation) {
+        // Get notified once the heat reaches (or drops below) what any of the input items requires
+        List<Float> heatThresholds = new ArrayList<>();
+        for (int slot : WorkstationInventoryUtils.getAssignedSlots(workstation, "INPUT")) {
+            HeatProcessedComponent processed = InventoryUtils.getItemAt(workstation, slot).getComponent(HeatProcessedComponent.class);
+            if (processed != null) {
+                heatThresholds.add(processed.heatRequired);
+            }
+        }
+        heatThresholdRegistry.setHeatThresholds(workstation, HEAT_THRESHOLD_SOURCE, heatThresholds);
+    }
+
     private boolean canOutputResult(EntityRef workstation, String resultObject) {
-        EntityRef resultItem = createResultItem(resultObject);
-        try {
-            for (int outputSlot : WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT")) {
-                if (InventoryUtils.canStackInto(resultItem, InventoryUtils.getItemAt(workstation, outputSlot))) {
-                    return true;
-                }
+        ResultDescriptor resultDescriptor = resultDescriptorCache.getResultDescriptor(resultObject);
+        if (resultDescriptor == null) {
+            return false;
+        }
+        for (int outputSlot : WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT")) {
+            if (resultDescriptor.canStackInto(InventoryUtils.getItemAt(workstation, outputSlot))) {
+                return true;
             }
-        } finally {
-            resultItem.destroy();
         }
         return false;
     }
 
     private EntityRef createResultItem(String itemResult) {
-        String resultText = itemResult;
-        int count = 1;
-        int starIndex = resultText.indexOf("*");
-        if (starIndex > -1) {
-            count = Integer.parseInt(resultText.substring(0, starIndex));
-            resultText = resultText.substring(starIndex + 1);
-        }
-
-        Prefab prefab = prefabManager.getPrefab(resultText);
-
-        EntityRef result;
-        if (prefab != null) {
-            result = entityManager.create(prefab);
-            ItemComponent item = result.getComponent(ItemComponent.class);
-            item.stackCount = (byte) count;
-            result.saveComponent(item);
-        } else {
-            BlockItemFactory blockItemFactory = new BlockItemFactory(entityManager);
-            BlockFamily blockFamily = blockManager.getBlockFamily(resultText);
-            result = blockItemFactory.newInstance(blockFamily, count);
-        }
-        return result;
+        return resultDescriptorCache.createResultItem(resultDescriptorCache.getResultDescriptor(itemResult));
     }
 }
@@ -15,16 +15,14 @@
  */
 package org.terasology.mill.processPart;
 
-import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.crafting.system.ResultDescriptorCache;
+import org.terasology.crafting.system.recipe.render.result.ResultDescriptor;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.event.ReceiveEvent;
-import org.terasology.entitySystem.prefab.Prefab;
-import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
 import org.terasology.entitySystem.systems.RegisterSystem;
 import org.terasology.logic.inventory.InventoryManager;
 import org.terasology.logic.inventory.InventoryUtils;
-import org.terasology.logic.inventory.ItemComponent;
 import org.terasology.mill.component.MillProcessedComponent;
 import org.terasology.mill.component.MillProgressComponent;
 import org.terasology.registry.In;
@@ -37,9 +35,6 @@ import org.terasology.workstation.processPart.ProcessEntityIsInvalidEvent;
 import org.terasology.workstation.processPart.ProcessEntityIsInvalidToStartEvent;
 import org.terasology.workstation.processPart.ProcessEntityStartExecutionEvent;
 import org.terasology.workstation.processPart.inventory.ProcessEntityIsInvalidForInventoryItemEvent;
-import org.terasology.world.block.BlockManager;
-import org.terasology.world.block.family.BlockFamily;
-import org.terasology.world.block.items.BlockItemFactory;
 
 @RegisterSystem
 public class MillProcessingProcessPartCommonSystem extends BaseComponentSystem {
@@ -48,11 +43,7 @@ public class MillProcessingProcessPartCommonSystem extends BaseComponentSystem {
     @In
     InventoryManager inventoryManager;
     @In
-    EntityManager entityManager;
-    @In
-    BlockManager blockManager;
-    @In
-    PrefabManager prefabManager;
+    ResultDescriptorCache resultDescriptorCache;
 
     ///// Processing
 
@@ -156,41 +147,19 @@ public class MillProcessingProcessPartCommonSystem extends BaseComponentSystem {
     }
 
     private boolean canOutputResult(EntityRef workstation, String resultObject) {
-        EntityRef resultItem = createResultItem(resultObject);
-        try {
-            for (int outputSlot : WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT")) {
-                if (InventoryUtils.canStackInto(resultItem, InventoryUtils.getItemAt(workstation, outputSlot))) {
-                    return true;
-                }
+        ResultDescriptor resultDescriptor = resultDescriptorCache.getResultDescriptor(resultObject);
+        if (resultDescriptor == null) {
+            return false;
+        }
+        for (int outputSlot : WorkstationInventoryUtils.getAssignedSlots(workstation, "OUTPUT")) {
+            if (resultDescriptor.canStackInto(InventoryUtils.getItemAt(workstation, outputSlot))) {
+                return true;
             }
-        } finally {
-            resultItem.destroy();
         }
         return false;
     }
 
     private EntityRef createResultItem(String itemResult) {
-        String resultText = itemResult;
-        int count = 1;
-        int starIndex = resultText.indexOf("*");
-        if (starIndex > -1) {
-            count = Integer.parseInt(resultText.substring(0, starIndex));
-            resultText = resultText.substring(starIndex + 1);
-        }
-
-        Prefab prefab = prefabManager.getPrefab(resultText);
-
-        EntityRef result;
-        if (prefab != null) {
-            result = entityManager.create(prefab);
-            ItemComponent item = result.getComponent(ItemComponent.class);
-            item.stackCount = (byte) count;
-            result.saveComponent(item);
-        } else {
-            BlockItemFactory blockItemFactory = new BlockItemFactory(entityManager);
-            BlockFamily blockFamily = blockManager.getBlockFamily(resultText);
-            result = blockItemFactory.newInstance(blockFamily, count);
-        }
-        return result;
+        return resultDescriptorCache.createResultItem(resultDescriptorCache.getResultDescriptor(itemResult));
     }
 }
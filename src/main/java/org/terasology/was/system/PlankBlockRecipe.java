@@ -19,6 +19,7 @@ import com.google.common.base.Predicate;
 import org.terasology.crafting.system.recipe.behaviour.ConsumeItemCraftBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotResolver;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotTypeResolver;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.behaviour.ReduceDurabilityCraftBehaviour;
 import org.terasology.crafting.system.recipe.render.result.BlockRecipeResultFactory;
 import org.terasology.crafting.system.recipe.workstation.AbstractWorkstationRecipe;
@@ -38,8 +39,8 @@ public class PlankBlockRecipe extends AbstractWorkstationRecipe {
         Predicate<EntityRef> plankPredicate = new CraftingStationIngredientPredicate("WoodAndStone:plank");
         Predicate<EntityRef> hammerPredicate = new CraftingStationToolPredicate("hammer");
 
-        addIngredientBehaviour(new ConsumePlankIngredientBehaviour(plankPredicate, ingredientCount, new InventorySlotTypeResolver("INPUT")));
-        addToolBehaviour(new ReduceDurabilityCraftBehaviour(hammerPredicate, toolDurability, new InventorySlotTypeResolver("TOOL")));
+        addIngredientBehaviour("WoodAndStone:plank", new ConsumePlankIngredientBehaviour(plankPredicate, ingredientCount, new InventorySlotTypeResolver("INPUT")));
+        addToolBehaviour("hammer", new ReduceDurabilityCraftBehaviour(hammerPredicate, toolDurability, new InventorySlotTypeResolver("TOOL")));
 
         setResultFactory(new PlankBlockRecipeResultFactory(shape, resultCount));
     }
@@ -54,10 +55,10 @@ public class PlankBlockRecipe extends AbstractWorkstationRecipe {
 
         @Override
         protected Block getBlock(List<String> parameters) {
-            String[] split = parameters.get(0).split("\\|");
+            RecipeParameter plankParameter = RecipeParameter.parse(parameters.get(0));
             BlockManager blockManager = CoreRegistry.get(BlockManager.class);
-            if (split.length == 2) {
-                String treeType = split[1];
+            if (plankParameter.getMetadataCount() == 1) {
+                String treeType = plankParameter.getMetadata(0);
                 String blockType = "WoodAndStone:" + treeType + "Plank";
                 BlockUri customBlockUri = new BlockUri("WoodAndStone:" + treeType + "Plank");
                 if (blockManager.getBlockFamily(customBlockUri) != null) {
@@ -90,11 +91,5 @@ public class PlankBlockRecipe extends AbstractWorkstationRecipe {
                 return super.getParameter(slots, item);
             }
         }
-
-        @Override
-        protected List<Integer> getSlots(String parameter) {
-            final String[] split = parameter.split("\\|");
-            return super.getSlots(split[0]);
-        }
     }
 }
@@ -20,6 +20,7 @@ import org.terasology.utilities.Assets;
 import org.terasology.crafting.system.recipe.behaviour.ConsumeItemCraftBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotResolver;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotTypeResolver;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.behaviour.ReduceDurabilityCraftBehaviour;
 import org.terasology.crafting.system.recipe.render.result.ItemRecipeResultFactory;
 import org.terasology.crafting.system.recipe.workstation.AbstractWorkstationRecipe;
@@ -38,8 +39,8 @@ public class PlankRecipe extends AbstractWorkstationRecipe {
         Predicate<EntityRef> woodPredicate = new CraftingStationIngredientPredicate("WoodAndStone:wood");
         Predicate<EntityRef> axePredicate = new CraftingStationToolPredicate("axe");
 
-        addIngredientBehaviour(new ConsumeWoodIngredientBehaviour(woodPredicate, 1, new InventorySlotTypeResolver("INPUT")));
-        addToolBehaviour(new ReduceDurabilityCraftBehaviour(axePredicate, 1, new InventorySlotTypeResolver("TOOL")));
+        addIngredientBehaviour("WoodAndStone:wood", new ConsumeWoodIngredientBehaviour(woodPredicate, 1, new InventorySlotTypeResolver("INPUT")));
+        addToolBehaviour("axe", new ReduceDurabilityCraftBehaviour(axePredicate, 1, new InventorySlotTypeResolver("TOOL")));
 
         setResultFactory(new PlankRecipeResultFactory(Assets.getPrefab("WoodAndStone:WoodPlank").get(), plankCount));
     }
@@ -49,23 +50,40 @@ public class PlankRecipe extends AbstractWorkstationRecipe {
             super(prefab, count);
         }
 
+        @Override
+        public boolean canStackInto(List<String> parameters, int multiplier, EntityRef item) {
+            if (!super.canStackInto(parameters, multiplier, item)) {
+                return false;
+            }
+            if (!item.exists()) {
+                return true;
+            }
+            // Planks of different tree types share the stack id, but not the TreeTypeComponent createResult adds
+            final RecipeParameter woodParameter = RecipeParameter.parse(parameters.get(0));
+            String treeType = woodParameter.getMetadataCount() > 0 ? woodParameter.getMetadata(0) : null;
+            TreeTypeComponent itemTreeType = item.getComponent(TreeTypeComponent.class);
+            if (itemTreeType == null) {
+                return treeType == null;
+            }
+            return treeType != null && treeType.equals(itemTreeType.treeType);
+        }
+
         @Override
         public void setupDisplay(List<String> parameters, ItemIcon itemIcon) {
             super.setupDisplay(parameters, itemIcon);
 
-            final String[] split = parameters.get(0).split("\\|");
-            if (split.length > 1) {
-                itemIcon.setTooltip(split[1] + " Plank");
+            final RecipeParameter woodParameter = RecipeParameter.parse(parameters.get(0));
+            if (woodParameter.getMetadataCount() > 0) {
+                itemIcon.setTooltip(woodParameter.getMetadata(0) + " Plank");
             }
         }
 
         @Override
         public EntityRef createResult(List<String> parameters, int multiplier) {
             final EntityRef result = super.createResult(parameters, multiplier);
-            final String woodParameter = parameters.get(0);
-            final String[] split = woodParameter.split("\\|");
-            if (split.length > 0) {
-                String treeType = split[1];
+            final RecipeParameter woodParameter = RecipeParameter.parse(parameters.get(0));
+            if (woodParameter.getMetadataCount() > 0) {
+                String treeType = woodParameter.getMetadata(0);
 
                 DisplayNameComponent displayName = result.getComponent(DisplayNameComponent.class);
                 displayName.name = treeType + " Plank";
@@ -94,11 +112,5 @@ public class PlankRecipe extends AbstractWorkstationRecipe {
                 return super.getParameter(slots, item);
             }
         }
-
-        @Override
-        protected List<Integer> getSlots(String parameter) {
-            final String[] split = parameter.split("\\|");
-            return super.getSlots(split[0]);
-        }
     }
 }
@@ -285,7 +285,7 @@ public class RegisterWoodAndStoneRecipes extends BaseComponentSystem {
                 String[] split = component.split("\\*");
                 int count = Integer.parseInt(split[0]);
                 String type = split[1];
-                recipe.addItemCraftBehaviour(new ConsumeItemCraftBehaviour(new CraftInHandIngredientPredicate(type), count, PlayerInventorySlotResolver.singleton()));
+                recipe.addItemCraftBehaviour(type, new ConsumeItemCraftBehaviour(new CraftInHandIngredientPredicate(type), count, PlayerInventorySlotResolver.singleton()));
             }
         }
         if (recipeComponent.recipeTools != null) {
@@ -293,7 +293,7 @@ public class RegisterWoodAndStoneRecipes extends BaseComponentSystem {
                 String[] split = tool.split("\\*");
                 int durability = Integer.parseInt(split[0]);
                 String type = split[1];
-                recipe.addItemCraftBehaviour(new ReduceDurabilityCraftBehaviour(new CraftInHandIngredientPredicate(type), durability,
+                recipe.addItemCraftBehaviour(type, new ReduceDurabilityCraftBehaviour(new CraftInHandIngredientPredicate(type), durability,
                         PlayerInventorySlotResolver.singleton()));
             }
         }
@@ -302,7 +302,7 @@ public class RegisterWoodAndStoneRecipes extends BaseComponentSystem {
                 String[] split = activator.split("\\*");
                 int count = Integer.parseInt(split[0]);
                 String type = split[1];
-                recipe.addItemCraftBehaviour(new PresenceItemCraftBehaviour(new CraftInHandIngredientPredicate(type), count, PlayerInventorySlotResolver.singleton()));
+                recipe.addItemCraftBehaviour(type, new PresenceItemCraftBehaviour(new CraftInHandIngredientPredicate(type), count, PlayerInventorySlotResolver.singleton()));
             }
         }
         addCraftInHandRecipe(recipeId, recipe);
@@ -19,6 +19,7 @@ import com.google.common.base.Predicate;
 import org.terasology.utilities.Assets;
 import org.terasology.crafting.system.recipe.behaviour.ConsumeItemCraftBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.IngredientCraftBehaviour;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.behaviour.ReduceDurabilityCraftBehaviour;
 import org.terasology.crafting.system.recipe.hand.CraftInHandIngredientPredicate;
 import org.terasology.crafting.system.recipe.hand.CraftInHandRecipe;
@@ -73,6 +74,9 @@ public class SeedingFruitRecipe implements CraftInHandRecipe {
 
     @Override
     public CraftInHandResult getResultByParameters(List<String> parameters) {
+        if (parameters.size() != 2 || !RecipeParameter.isValid(parameters.get(0)) || !RecipeParameter.isValid(parameters.get(1))) {
+            return null;
+        }
         return new Result(parameters);
     }
 
@@ -170,11 +174,6 @@ public class SeedingFruitRecipe implements CraftInHandRecipe {
             }, 1, PlayerInventorySlotResolver.singleton());
         }
 
-        @Override
-        protected List<Integer> getSlots(String parameter) {
-            return super.getSlots(parameter.substring(0, parameter.indexOf('|')));
-        }
-
         @Override
         protected String getParameter(List<Integer> slots, EntityRef item) {
             Prefab prefab = item.getParentPrefab();
@@ -186,13 +185,11 @@ public class SeedingFruitRecipe implements CraftInHandRecipe {
         }
 
         public String getSeedResult(String parameter) {
-            String[] split = parameter.split("\\|");
-            return "AnotherWorldPlants:" + split[1] + "Seed";
+            return "AnotherWorldPlants:" + RecipeParameter.parse(parameter).getMetadata(0) + "Seed";
         }
 
         public String getFruitIcon(String parameter) {
-            String[] split = parameter.split("\\|");
-            return split[2];
+            return RecipeParameter.parse(parameter).getMetadata(1);
         }
     }
 }
@@ -20,6 +20,7 @@ import org.terasology.anotherWorldPlants.farm.component.SeedComponent;
 import org.terasology.utilities.Assets;
 import org.terasology.crafting.system.recipe.behaviour.ConsumeItemCraftBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.IngredientCraftBehaviour;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.behaviour.ReduceDurabilityCraftBehaviour;
 import org.terasology.crafting.system.recipe.hand.CraftInHandIngredientPredicate;
 import org.terasology.crafting.system.recipe.hand.CraftInHandRecipe;
@@ -78,6 +79,9 @@ public class SeedingHerbRecipe implements CraftInHandRecipe {
 
     @Override
     public CraftInHandResult getResultByParameters(List<String> parameters) {
+        if (parameters.size() != 2 || !RecipeParameter.isValid(parameters.get(0)) || !RecipeParameter.isValid(parameters.get(1))) {
+            return null;
+        }
         return new Result(parameters);
     }
 
@@ -177,11 +181,6 @@ public class SeedingHerbRecipe implements CraftInHandRecipe {
             }, 1, PlayerInventorySlotResolver.singleton());
         }
 
-        @Override
-        protected List<Integer> getSlots(String parameter) {
-            return super.getSlots(parameter.substring(0, parameter.indexOf('|')));
-        }
-
         @Override
         protected String getParameter(List<Integer> slots, EntityRef item) {
             final GenomeComponent genome = item.getComponent(GenomeComponent.class);
@@ -194,15 +193,15 @@ public class SeedingHerbRecipe implements CraftInHandRecipe {
         }
 
         public String getSeedGenome(String parameter) {
-            return parameter.split("\\|")[1];
+            return RecipeParameter.parse(parameter).getMetadata(0);
         }
 
         public String getHerbName(String parameter) {
-            return parameter.split("\\|")[2];
+            return RecipeParameter.parse(parameter).getMetadata(1);
         }
 
         public String getHerbIconUri(String parameter) {
-            return parameter.split("\\|")[3];
+            return RecipeParameter.parse(parameter).getMetadata(2);
         }
     }
 }
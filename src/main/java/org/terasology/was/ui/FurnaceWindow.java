@@ -17,6 +17,7 @@ package org.terasology.was.ui;
 
 import org.terasology.engine.Time;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.heat.HeatUtils;
 import org.terasology.heat.component.HeatProcessedComponent;
 import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.heat.ui.ThermometerWidget;
@@ -31,8 +32,6 @@ import org.terasology.workstation.component.WorkstationInventoryComponent;
 import org.terasology.workstation.component.WorkstationProcessingComponent;
 import org.terasology.workstation.process.WorkstationInventoryUtils;
 
-import java.util.List;
-
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
@@ -96,17 +95,7 @@ public class FurnaceWindow extends BaseInteractionScreen {
                     @Override
                     public Float get() {
                         HeatProducerComponent heatProducer = workstation.getComponent(HeatProducerComponent.class);
-                        List<HeatProducerComponent.FuelSourceConsume> consumedFuel = heatProducer.fuelConsumed;
-                        if (consumedFuel.size() == 0) {
-                            return 0f;
-                        }
-                        long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
-
-                        HeatProducerComponent.FuelSourceConsume lastConsumed = consumedFuel.get(consumedFuel.size() - 1);
-                        if (gameTime > lastConsumed.startTime + lastConsumed.burnLength) {
-                            return 0f;
-                        }
-                        return 1f - (1f * (gameTime - lastConsumed.startTime) / lastConsumed.burnLength);
+                        return HeatUtils.calculateRemainingBurn(heatProducer);
                     }
 
                     @Override
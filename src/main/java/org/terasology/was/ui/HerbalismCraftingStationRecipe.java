@@ -23,6 +23,7 @@ import org.terasology.crafting.system.recipe.behaviour.ConsumeFluidBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.ConsumeItemCraftBehaviour;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotResolver;
 import org.terasology.crafting.system.recipe.behaviour.InventorySlotTypeResolver;
+import org.terasology.crafting.system.recipe.behaviour.RecipeParameter;
 import org.terasology.crafting.system.recipe.render.result.ItemRecipeResultFactory;
 import org.terasology.crafting.system.recipe.workstation.AbstractWorkstationRecipe;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -48,7 +49,7 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             }
         };
         addIngredientBehaviour(new ConsumeHerbIngredientBehaviour(herbComponentPredicate, 1, new InventorySlotTypeResolver("INPUT")));
-        addFluidBehaviour(new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
+        addFluidBehaviour("Fluid:Water", new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
         setRequiredHeat(95f);
         setProcessingDuration(10000);
         setResultFactory(new PotionRecipeResultFactory(Assets.getPrefab("WoodAndStone:HerbPotion").get(), 1));
@@ -62,7 +63,7 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             }
         };
         addIngredientBehaviour(new ConsumeHerbIngredientBehaviour(herbComponentPredicate, 1, new InventorySlotTypeResolver("INPUT")));
-        addFluidBehaviour(new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
+        addFluidBehaviour("Fluid:Water", new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
         setRequiredHeat(95f);
         setProcessingDuration(10000);
         setResultFactory(new PotionRecipeResultFactory(Assets.getPrefab(prefabPath).get(), toolTip, 1));
@@ -76,7 +77,7 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             }
         };
         addIngredientBehaviour(new ConsumeHerbIngredientBehaviour(herbComponentPredicate, 1, new InventorySlotTypeResolver("INPUT")));
-        addFluidBehaviour(new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
+        addFluidBehaviour("Fluid:Water", new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
         setRequiredHeat(requiredTemperature);
         setProcessingDuration(processingDuration);
         setResultFactory(new PotionRecipeResultFactory(Assets.getPrefab(prefabPath).get(), displayName, 1));
@@ -97,7 +98,7 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             addIngredientBehaviour(new ConsumeHerbIngredientBehaviour(herbComponentPredicate, count, new InventorySlotTypeResolver("INPUT")));
         }
 
-        addFluidBehaviour(new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
+        addFluidBehaviour("Fluid:Water", new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
         setRequiredHeat(requiredTemperature);
         setProcessingDuration(processingDuration);
         setResultFactory(new PotionRecipeResultFactory(Assets.getPrefab(prefabPath).get(), displayName, 1));
@@ -121,7 +122,7 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             addIngredientBehaviour(new ConsumeHerbIngredientBehaviour(new HerbalismStationIngredientPredicate(type), count, new InventorySlotTypeResolver("INPUT")));
         }
 
-        addFluidBehaviour(new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
+        addFluidBehaviour("Fluid:Water", new ConsumeFluidBehaviour("Fluid:Water", 0.2f, new InventorySlotTypeResolver("FLUID_INPUT")));
         setRequiredHeat(recipe.requiredTemperature);
         setProcessingDuration(recipe.processingDuration);
         setResultFactory(new PotionRecipeResultFactory(Assets.getPrefab(recipe.recipeId).get(), recipe.itemResult.split("\\*")[1], 1));
@@ -140,11 +141,25 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             this.toolTip = toolTip;
         }
 
+        @Override
+        public boolean canStackInto(List<String> parameters, int multiplier, EntityRef item) {
+            if (!super.canStackInto(parameters, multiplier, item)) {
+                return false;
+            }
+            if (!item.exists()) {
+                return true;
+            }
+            // Potions of different herbs share the stack id, but not the GenomeComponent createResult adds
+            final RecipeParameter herbParameter = RecipeParameter.parse(parameters.get(0));
+            GenomeComponent itemGenome = item.getComponent(GenomeComponent.class);
+            return itemGenome != null && herbParameter.getMetadata(0).equals(itemGenome.genomeId)
+                    && herbParameter.getMetadata(1).equals(itemGenome.genes);
+        }
+
         @Override
         public void setupDisplay(List<String> parameters, ItemIcon itemIcon) {
             super.setupDisplay(parameters, itemIcon);
-            final String herbParameter = parameters.get(0);
-            final String herbName = herbParameter.split("\\|")[3];
+            final String herbName = RecipeParameter.parse(parameters.get(0)).getMetadata(2);
             itemIcon.setTooltipLines(
                     Arrays.asList(new TooltipLine(toolTip), HerbalismClientSystem.getHerbTooltipLine(herbName)));
         }
@@ -152,10 +167,9 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
         @Override
         public EntityRef createResult(List<String> parameters, int multiplier) {
             final EntityRef result = super.createResult(parameters, multiplier);
-            final String herbParameter = parameters.get(0);
-            final String[] herbSplit = herbParameter.split("\\|");
-            final String genomeId = herbSplit[1];
-            final String genes = herbSplit[2];
+            final RecipeParameter herbParameter = RecipeParameter.parse(parameters.get(0));
+            final String genomeId = herbParameter.getMetadata(0);
+            final String genes = herbParameter.getMetadata(1);
             GenomeComponent genome = new GenomeComponent();
             genome.genomeId = genomeId;
             genome.genes = genes;
@@ -175,10 +189,5 @@ public class HerbalismCraftingStationRecipe extends AbstractWorkstationRecipe {
             final String herbName = CoreRegistry.get(GenomeManager.class).getGenomeProperty(item, Herbalism.NAME_PROPERTY, String.class);
             return super.getParameter(slots, item) + "|" + genome.genomeId + "|" + genome.genes + "|" + herbName;
         }
-
-        @Override
-        protected List<Integer> getSlots(String parameter) {
-            return super.getSlots(parameter.substring(0, parameter.indexOf('|')));
-        }
     }
 }
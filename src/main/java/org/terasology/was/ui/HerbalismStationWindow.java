@@ -22,6 +22,7 @@ import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.fluid.component.FluidComponent;
 import org.terasology.fluid.component.FluidInventoryComponent;
 import org.terasology.fluid.system.FluidRegistry;
+import org.terasology.heat.HeatUtils;
 import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.heat.ui.ThermometerWidget;
 import org.terasology.logic.players.LocalPlayer;
@@ -36,8 +37,6 @@ import org.terasology.was.WoodAndStone;
 import org.terasology.workstation.component.WorkstationInventoryComponent;
 import org.terasology.workstation.component.WorkstationProcessingComponent;
 
-import java.util.List;
-
 /**
  * @author Marcin Sciesinski <marcins78@gmail.com>
  */
@@ -185,17 +184,7 @@ public class HerbalismStationWindow extends BaseInteractionScreen {
                     @Override
                     public Float get() {
                         HeatProducerComponent heatProducer = station.getComponent(HeatProducerComponent.class);
-                        List<HeatProducerComponent.FuelSourceConsume> consumedFuel = heatProducer.fuelConsumed;
-                        if (consumedFuel.size() == 0) {
-                            return 0f;
-                        }
-                        long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
-
-                        HeatProducerComponent.FuelSourceConsume lastConsumed = consumedFuel.get(consumedFuel.size() - 1);
-                        if (gameTime > lastConsumed.startTime + lastConsumed.burnLength) {
-                            return 0f;
-                        }
-                        return 1f - (1f * (gameTime - lastConsumed.startTime) / lastConsumed.burnLength);
+                        return HeatUtils.calculateRemainingBurn(heatProducer);
                     }
 
                     @Override
@@ -16,7 +16,7 @@
 package org.terasology.was.ui;
 
 import org.terasology.entitySystem.entity.EntityRef;
-import org.terasology.heat.HeatUtils;
+import org.terasology.heat.HeatSnapshotManager;
 import org.terasology.heat.component.HeatProducerComponent;
 import org.terasology.heat.ui.ThermometerWidget;
 import org.terasology.registry.CoreRegistry;
@@ -24,7 +24,6 @@ import org.terasology.rendering.nui.databinding.Binding;
 import org.terasology.rendering.nui.databinding.ReadOnlyBinding;
 import org.terasology.rendering.nui.layers.ingame.inventory.InventoryGrid;
 import org.terasology.workstation.component.WorkstationInventoryComponent;
-import org.terasology.world.BlockEntityRegistry;
 
 public final class WorkstationScreenUtils {
     private WorkstationScreenUtils() {
@@ -59,7 +58,7 @@ public final class WorkstationScreenUtils {
                 new Binding<Float>() {
                     @Override
                     public Float get() {
-                        return HeatUtils.calculateHeatForEntity(workstation, CoreRegistry.get(BlockEntityRegistry.class));
+                        return CoreRegistry.get(HeatSnapshotManager.class).getHeat(workstation);
                     }
 
                     @Override
@@ -70,7 +69,7 @@ public final class WorkstationScreenUtils {
                 new ReadOnlyBinding<String>() {
                     @Override
                     public String get() {
-                        return Math.round(HeatUtils.calculateHeatForEntity(workstation, CoreRegistry.get(BlockEntityRegistry.class))) + "C";
+                        return Math.round(CoreRegistry.get(HeatSnapshotManager.class).getHeat(workstation)) + "C";
                     }
                 });
     }